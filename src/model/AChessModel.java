@@ -0,0 +1,309 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import model.board.APosition;
+import model.board.GameHistory;
+import model.board.Move;
+import model.board.WideMove;
+import model.board.WidePosition;
+import model.matrix.IMatrix;
+import model.metrics.ChessMetrics;
+import model.piece.Archbishop;
+import model.piece.Bishop;
+import model.piece.Chancellor;
+import model.piece.IChessPiece;
+import model.piece.King;
+import model.piece.Knight;
+import model.piece.Pawn;
+import model.piece.Queen;
+import model.piece.Rook;
+import model.player.EChessPlayer;
+import model.player.EGameResult;
+import model.posn.BoardGeometry;
+import model.posn.BoardPosn;
+
+/**
+ * An {@link IChessModel} backed by an {@link APosition}. The {@link IChessPiece}s handed out by
+ * this model mirror the position square for square, so that callers can keep identifying pieces
+ * by reference while the rules are enforced by the position.
+ * <p>Every move is kept in a compact {@link GameHistory}, which lets the game be stepped back and
+ * forth with {@link #undo()}, {@link #redo()} and {@link #jumpTo(int)}. Captured pieces are not
+ * kept separately but worked out from the history when a graveyard or score is asked for.</p>
+ */
+public abstract class AChessModel implements IChessModel {
+
+  protected final APosition position;
+  protected final BoardGeometry geometry;
+  private final IChessPiece[] pieces;
+  private final GameHistory history;
+  private final int[] moveBuffer;
+
+  /**
+   * Creates a model of a game starting from the given position.
+   *
+   * @param position the starting position, which the model takes ownership of
+   * @throws IllegalArgumentException if the position is null
+   */
+  protected AChessModel(APosition position)
+      throws IllegalArgumentException {
+    this.position = Utils.nonNullConstructor(position, "AChessModel", "APosition");
+    this.geometry = position.getGeometry();
+    this.pieces = new IChessPiece[this.geometry.getNumSquares()];
+    this.history = new GameHistory(position);
+    this.moveBuffer = new int[position.getMaxMoves()];
+    this.mirrorPosition();
+  }
+
+  public BoardGeometry getGeometry() {
+    return this.geometry;
+  }
+
+  @Override
+  public void move(IChessPiece toMove, BoardPosn destination)
+      throws IllegalArgumentException, IllegalStateException {
+    long start = ChessMetrics.startTimer();
+    Utils.checkNotNull(toMove, "cannot move a null piece");
+    Utils.checkNotNull(destination, "cannot move to a null BoardPosn");
+    if (this.getResult().isOver()) {
+      throw new IllegalStateException("cannot move after the game is over");
+    }
+
+    int move = this.findLegalMove(this.squareOf(toMove), this.geometry.squareOf(destination));
+    this.mirrorMove(move);
+    this.history.play(move);
+
+    ChessMetrics.recordModelMove(start);
+  }
+
+  /**
+   * Takes back the last move. Pieces keep their identity, except that a piece coming back from
+   * the graveyard is a new object.
+   *
+   * @throws IllegalStateException if no move has been made
+   */
+  public void undo()
+      throws IllegalStateException {
+    this.unmirrorMove(this.history.undo());
+  }
+
+  /**
+   * Replays the last move taken back with {@link #undo()}.
+   *
+   * @throws IllegalStateException if there is no move to replay
+   */
+  public void redo()
+      throws IllegalStateException {
+    this.mirrorMove(GameHistory.moveOf(this.history.peekRedo()));
+    this.history.redo();
+  }
+
+  /**
+   * Moves the game to any ply that has been played, as if by undoing or redoing to it. Every
+   * piece on the board is a new object afterwards.
+   *
+   * @param ply the number of moves from the start, up to the number of moves played
+   * @throws IllegalArgumentException if the ply has not been played
+   */
+  public void jumpTo(int ply)
+      throws IllegalArgumentException {
+    this.history.jumpTo(ply);
+    this.mirrorPosition();
+  }
+
+  /**
+   * The number of moves from the start to the current position.
+   */
+  public int getPly() {
+    return this.history.getPly();
+  }
+
+  /**
+   * The moves from the start to the current position, in long algebraic notation such as
+   * {@code e2e4} or {@code e7e8q}.
+   */
+  public List<String> getMoveList() {
+    return this.history.getMoveList();
+  }
+
+  @Override
+  public EChessPlayer getWinner() {
+    return this.getResult().getWinner();
+  }
+
+  @Override
+  public EGameResult getResult() {
+    if (!this.position.hasLegalMove()) {
+      return this.position.isInCheck()
+          ? EGameResult.winFor(APosition.playerOf(this.position.getSideToMove() ^ 1))
+          : EGameResult.DRAW_BY_STALEMATE;
+    } else if (this.position.isFiftyMoveDraw()) {
+      return EGameResult.DRAW_BY_FIFTY_MOVES;
+    } else if (this.position.isThreefoldRepetition()) {
+      return EGameResult.DRAW_BY_REPETITION;
+    }
+    return EGameResult.IN_PROGRESS;
+  }
+
+  @Override
+  public EChessPlayer getCurrentPlayer() {
+    return APosition.playerOf(this.position.getSideToMove());
+  }
+
+  @Override
+  public IMatrix<IChessPiece> getBoard() {
+    return null;
+  }
+
+  @Override
+  public IChessPiece getPieceAt(BoardPosn destination) {
+    return this.pieces[this.geometry.squareOf(destination)];
+  }
+
+  @Override
+  public int getScoreOf(EChessPlayer aPlayer) {
+    Utils.checkNotNull(aPlayer, "cannot score a null player");
+    int score = 0;
+    for (IChessPiece captured : this.getGraveyardOf(aPlayer == EChessPlayer.WHITE
+        ? EChessPlayer.BLACK : EChessPlayer.WHITE)) {
+      score += captured.getValue();
+    }
+    return score;
+  }
+
+  @Override
+  public List<IChessPiece> getGraveyardOf(EChessPlayer aPlayer) {
+    Utils.checkNotNull(aPlayer, "cannot find the graveyard of a null player");
+    List<IChessPiece> graveyard = new ArrayList<>();
+    for (int ply = 0; ply < this.history.getPly(); ply++) {
+      int entry = this.history.getEntry(ply);
+      int captured = GameHistory.capturedOf(entry);
+      if (captured != APosition.NO_PIECE
+          && APosition.playerOf(this.position.pieceColour(captured)) == aPlayer) {
+        int square = this.position.captureSquareOf(GameHistory.moveOf(entry));
+        graveyard.add(this.createPiece(captured, square));
+      }
+    }
+    return graveyard;
+  }
+
+  private int squareOf(IChessPiece piece)
+      throws IllegalArgumentException {
+    for (int square = 0; square < this.pieces.length; square++) {
+      if (this.pieces[square] == piece) {
+        return square;
+      }
+    }
+    throw new IllegalArgumentException(piece + " is not on the board");
+  }
+
+  /**
+   * Finds the legal move between two squares, promoting to a queen when a pawn reaches the last
+   * row.
+   */
+  private int findLegalMove(int from, int to)
+      throws IllegalArgumentException {
+    int count = this.position.generateLegalMoves(this.moveBuffer);
+    for (int i = 0; i < count; i++) {
+      int move = this.moveBuffer[i];
+      if (this.position.moveFrom(move) == from && this.position.moveTo(move) == to
+          && (!this.position.isPromotion(move)
+          || this.position.movePromotionType(move) == APosition.QUEEN)) {
+        return move;
+      }
+    }
+    throw new IllegalArgumentException("illegal move " + WideMove.squareName(from, this.geometry)
+        + WideMove.squareName(to, this.geometry));
+  }
+
+  /**
+   * Updates the piece objects for a move that is about to be made on the position.
+   */
+  private void mirrorMove(int move) {
+    int from = this.position.moveFrom(move);
+    int to = this.position.moveTo(move);
+    int flag = this.position.moveFlag(move);
+
+    this.pieces[this.position.captureSquareOf(move)] = null;
+
+    this.pieces[to] = this.position.isPromotion(move)
+        ? this.createPiece(this.position.pieceCode(this.position.getSideToMove(),
+        this.position.movePromotionType(move)), to)
+        : this.pieces[from];
+    this.pieces[from] = null;
+
+    if (flag == Move.FLAG_KING_CASTLE || flag == Move.FLAG_QUEEN_CASTLE) {
+      boolean kingSide = flag == Move.FLAG_KING_CASTLE;
+      int rookFrom = this.position.castleRookFrom(to, kingSide);
+      int rookTo = this.position.castleRookTo(to, kingSide);
+      this.pieces[rookTo] = this.pieces[rookFrom];
+      this.pieces[rookFrom] = null;
+    }
+  }
+
+  /**
+   * Updates the piece objects for a move that has just been taken back on the position.
+   */
+  private void unmirrorMove(int entry) {
+    int move = GameHistory.moveOf(entry);
+    int from = this.position.moveFrom(move);
+    int to = this.position.moveTo(move);
+    int flag = this.position.moveFlag(move);
+
+    if (flag == Move.FLAG_KING_CASTLE || flag == Move.FLAG_QUEEN_CASTLE) {
+      boolean kingSide = flag == Move.FLAG_KING_CASTLE;
+      int rookFrom = this.position.castleRookFrom(to, kingSide);
+      int rookTo = this.position.castleRookTo(to, kingSide);
+      this.pieces[rookFrom] = this.pieces[rookTo];
+      this.pieces[rookTo] = null;
+    }
+
+    this.pieces[from] = this.position.isPromotion(move)
+        ? this.createPiece(this.position.getPieceAt(from), from)
+        : this.pieces[to];
+    this.pieces[to] = null;
+
+    int captured = GameHistory.capturedOf(entry);
+    if (captured != APosition.NO_PIECE) {
+      int captureSquare = this.position.captureSquareOf(move);
+      this.pieces[captureSquare] = this.createPiece(captured, captureSquare);
+    }
+  }
+
+  /**
+   * Creates a piece object for every piece on the position.
+   */
+  private void mirrorPosition() {
+    for (int square = 0; square < this.pieces.length; square++) {
+      int piece = this.position.getPieceAt(square);
+      this.pieces[square] = piece == APosition.NO_PIECE ? null : this.createPiece(piece, square);
+    }
+  }
+
+  private IChessPiece createPiece(int piece, int square) {
+    EChessPlayer owner = APosition.playerOf(this.position.pieceColour(piece));
+    BoardPosn posn = this.geometry.posnOf(square);
+    // pieces other than pawns are given white's view of their square
+    BoardPosn initialPosn = owner == EChessPlayer.BLACK ? this.geometry.mirror(posn) : posn;
+    switch (this.position.pieceType(piece)) {
+      case APosition.PAWN:
+        return new Pawn(owner, 1, posn);
+      case APosition.KNIGHT:
+        return new Knight(owner, initialPosn, this.geometry);
+      case APosition.BISHOP:
+        return new Bishop(owner, initialPosn, this.geometry);
+      case APosition.ROOK:
+        return new Rook(owner, initialPosn, this.geometry);
+      case APosition.QUEEN:
+        return new Queen(owner, initialPosn, this.geometry);
+      case APosition.KING:
+        return new King(owner, initialPosn, this.geometry);
+      case WidePosition.ARCHBISHOP:
+        return new Archbishop(owner, initialPosn, this.geometry);
+      case WidePosition.CHANCELLOR:
+        return new Chancellor(owner, initialPosn, this.geometry);
+      default:
+        throw new IllegalArgumentException("no piece has the code " + piece);
+    }
+  }
+}
@@ -1,45 +1,31 @@
 package model;
 
-import java.util.List;
-import model.matrix.IMatrix;
+import model.board.Position;
 import model.piece.IChessPiece;
-import model.player.EChessPlayer;
-import model.posn.BoardPosn;
 
-public class ChessModelImpl implements IChessModel {
-
-  @Override
-  public void move(IChessPiece toMove, BoardPosn destination) {
-
-  }
-
-  @Override
-  public EChessPlayer getWinner() {
-    return null;
-  }
-
-  @Override
-  public EChessPlayer getCurrentPlayer() {
-    return null;
-  }
-
-  @Override
-  public IMatrix<IChessPiece> getBoard() {
-    return null;
-  }
-
-  @Override
-  public IChessPiece getPieceAt(BoardPosn destination) {
-    return null;
-  }
-
-  @Override
-  public int getScoreOf(EChessPlayer aPlayer) {
-    return 0;
+/**
+ * An {@link IChessModel} of standard chess backed by a bitboard {@link Position}. The
+ * {@link IChessPiece}s handed out by this model mirror the position square for square, so that
+ * callers can keep identifying pieces by reference while the rules are enforced by the position.
+ * <p>Moves, history and captured pieces are kept as described in {@link AChessModel}.</p>
+ */
+public class ChessModelImpl extends AChessModel {
+
+  /**
+   * Creates a model of a new game from the standard starting position.
+   */
+  public ChessModelImpl() {
+    this(Position.START_FEN);
   }
 
-  @Override
-  public List<IChessPiece> getGraveyardOf(EChessPlayer aPlayer) {
-    return null;
+  /**
+   * Creates a model of a game starting from the given position.
+   *
+   * @param fen the starting position in Forsyth-Edwards Notation
+   * @throws IllegalArgumentException if the FEN is null or malformed
+   */
+  public ChessModelImpl(String fen)
+      throws IllegalArgumentException {
+    super(Position.fromFen(fen));
   }
 }
@@ -4,6 +4,7 @@ import java.util.List;
 import model.matrix.IMatrix;
 import model.piece.IChessPiece;
 import model.player.EChessPlayer;
+import model.player.EGameResult;
 import model.posn.BoardPosn;
 
 /**
@@ -14,11 +15,19 @@ public interface IChessModel {
   void move(IChessPiece toMove, BoardPosn destination);
 
   /**
-   * TODO: should this return null or an enum type "Neither" if there is no winner
-   * @return
+   * The winner of the game.
+   *
+   * @return the player who won, or {@code null} if the game is drawn or still in progress
    */
   EChessPlayer getWinner();
 
+  /**
+   * The state of the game, distinguishing a draw from a game still in progress.
+   *
+   * @return whether the game is in progress, won by a player, or drawn (and why)
+   */
+  EGameResult getResult();
+
   EChessPlayer getCurrentPlayer();
 
   IMatrix<IChessPiece> getBoard();
@@ -0,0 +1,40 @@
+package model;
+
+import model.board.WidePosition;
+import model.piece.Archbishop;
+import model.piece.Chancellor;
+import model.posn.BoardGeometry;
+import model.posn.BoardPosn;
+
+/**
+ * An {@link IChessModel} on a board of any {@link BoardGeometry}, such as 10x8 Capablanca chess
+ * or 10x10, backed by a {@link WidePosition}. It behaves as {@link ChessModelImpl} does, undo,
+ * redo and jumps included, which should be preferred for the standard 8x8 board, and additionally
+ * hands out {@link Archbishop}s and {@link Chancellor}s. Every {@link BoardPosn} passed in must
+ * lie on the model's board.
+ */
+public class VariantChessModel extends AChessModel {
+
+  /**
+   * Creates a model of a new game from the starting position of the given board.
+   *
+   * @param geometry the board to play on
+   * @throws IllegalArgumentException if the geometry is null or has no known starting position
+   */
+  public VariantChessModel(BoardGeometry geometry)
+      throws IllegalArgumentException {
+    this(geometry, WidePosition.startingFen(geometry));
+  }
+
+  /**
+   * Creates a model of a game on the given board, starting from the given position.
+   *
+   * @param geometry the board to play on
+   * @param fen      the starting position in Forsyth-Edwards Notation
+   * @throws IllegalArgumentException if either argument is null or the FEN is malformed
+   */
+  public VariantChessModel(BoardGeometry geometry, String fen)
+      throws IllegalArgumentException {
+    super(WidePosition.fromFen(geometry, fen));
+  }
+}
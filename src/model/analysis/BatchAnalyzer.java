@@ -0,0 +1,181 @@
+package model.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.Utils;
+import model.board.Move;
+import model.board.Position;
+import model.engine.Evaluator;
+import model.engine.Search;
+import model.engine.SearchLimits;
+import model.engine.SearchResult;
+import model.engine.TranspositionTable;
+
+/**
+ * <p>Analyses batches of positions given in FEN, either by static evaluation or by searching each
+ * for its best move, spreading each batch across a caller-supplied {@link ExecutorService}.</p>
+ * <p>The analyser keeps a pool of at most {@code workers} workers, each owning a
+ * {@link Position} that is reloaded with {@link Position#load(String)} for every position and a
+ * {@link Search} whose tables persist from one position to the next. A batch is cut into a few
+ * chunks per worker so that slow positions even out, and each chunk borrows a worker for its
+ * duration, so nothing is allocated per position beyond its result. The executor should have at
+ * least {@code workers} threads for every worker to be used.</p>
+ * <p>A malformed FEN, or one describing a position that cannot arise in a game, fails only its
+ * own position; its analysis carries the reason. So does any other failure while analysing a
+ * position, after which the worker starts over with fresh search tables.</p>
+ */
+public final class BatchAnalyzer {
+
+  private static final int CHUNKS_PER_WORKER = 4;
+
+  private final ExecutorService executor;
+  private final int workers;
+  private final SearchLimits limits;
+  private final int log2TableEntries;
+  private final BlockingQueue<Worker> pool;
+  private final AtomicInteger created;
+
+  /**
+   * Creates an analyser.
+   *
+   * @param executor         where to run the analysis; it is not shut down by the analyser
+   * @param workers          the most positions to analyse at once
+   * @param limits           the search budget per position when finding best moves
+   * @param log2TableEntries the base-2 logarithm of each worker's transposition table size
+   * @throws IllegalArgumentException if the executor or limits are null, {@code workers} is not
+   *                                  positive, or the table size is out of range
+   */
+  public BatchAnalyzer(ExecutorService executor, int workers, SearchLimits limits,
+      int log2TableEntries)
+      throws IllegalArgumentException {
+    this.executor = Utils.nonNullConstructor(executor, "BatchAnalyzer", "ExecutorService");
+    this.workers = Utils.checkIntBetween(workers, 1, Integer.MAX_VALUE);
+    this.limits = Utils.nonNullConstructor(limits, "BatchAnalyzer", "SearchLimits");
+    this.log2TableEntries = Utils.checkIntBetween(log2TableEntries,
+        TranspositionTable.MIN_LOG2_ENTRIES, TranspositionTable.MAX_LOG2_ENTRIES);
+    this.pool = new LinkedBlockingQueue<>();
+    this.created = new AtomicInteger();
+  }
+
+  /**
+   * Analyses a batch of positions.
+   *
+   * @param fens the positions in FEN
+   * @param mode whether to evaluate each position or search it for its best move
+   * @return one analysis per position, in the order given
+   * @throws IllegalArgumentException if either argument is null
+   * @throws InterruptedException     if interrupted while waiting for the batch
+   * @throws IllegalStateException    if analysing a position fails unexpectedly
+   */
+  public BatchResult analyze(List<String> fens, EAnalysisMode mode)
+      throws IllegalArgumentException, InterruptedException, IllegalStateException {
+    Utils.checkNotNull(fens, "cannot analyze a null batch");
+    Utils.checkNotNull(mode, "cannot analyze with a null EAnalysisMode");
+    long start = System.nanoTime();
+    int size = fens.size();
+    PositionAnalysis[] analyses = new PositionAnalysis[size];
+
+    int chunkSize = Math.max(1,
+        (size + this.workers * CHUNKS_PER_WORKER - 1) / (this.workers * CHUNKS_PER_WORKER));
+    List<Future<?>> chunks = new ArrayList<>();
+    try {
+      for (int from = 0; from < size; from += chunkSize) {
+        int chunkStart = from;
+        int chunkEnd = Math.min(size, from + chunkSize);
+        chunks.add(this.executor.submit(() -> {
+          this.analyzeChunk(fens, chunkStart, chunkEnd, mode, analyses);
+          return null;
+        }));
+      }
+      for (Future<?> chunk : chunks) {
+        chunk.get();
+      }
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("analysing a batch failed", e.getCause());
+    } finally {
+      for (Future<?> chunk : chunks) {
+        chunk.cancel(true);
+      }
+    }
+
+    return new BatchResult(Arrays.asList(analyses), System.nanoTime() - start);
+  }
+
+  private void analyzeChunk(List<String> fens, int from, int to, EAnalysisMode mode,
+      PositionAnalysis[] analyses)
+      throws InterruptedException {
+    Worker worker = this.borrow();
+    try {
+      for (int i = from; i < to; i++) {
+        analyses[i] = worker.analyze(fens.get(i), mode);
+      }
+    } finally {
+      this.pool.add(worker);
+    }
+  }
+
+  /**
+   * Takes an idle worker, creating one while fewer than {@code workers} exist.
+   */
+  private Worker borrow()
+      throws InterruptedException {
+    Worker worker = this.pool.poll();
+    if (worker != null) {
+      return worker;
+    }
+    if (this.created.incrementAndGet() <= this.workers) {
+      return new Worker();
+    }
+    this.created.decrementAndGet();
+    return this.pool.take();
+  }
+
+  /**
+   * The reusable state for analysing one position at a time.
+   */
+  private final class Worker {
+
+    private final Position position;
+    private Search search;
+
+    private Worker() {
+      this.position = Position.startingPosition();
+    }
+
+    private PositionAnalysis analyze(String fen, EAnalysisMode mode) {
+      long start = System.nanoTime();
+      try {
+        this.position.load(fen);
+      } catch (IllegalArgumentException e) {
+        return new PositionAnalysis(fen, Move.NONE, 0, 0, 0, System.nanoTime() - start,
+            "invalid FEN: " + e.getMessage());
+      }
+
+      try {
+        if (mode == EAnalysisMode.EVALUATE) {
+          return new PositionAnalysis(fen, Move.NONE, Evaluator.evaluate(this.position), 0, 0,
+              System.nanoTime() - start, null);
+        }
+        if (this.search == null) {
+          this.search = new Search(BatchAnalyzer.this.log2TableEntries);
+        }
+        SearchResult result = this.search.search(this.position, BatchAnalyzer.this.limits);
+        return new PositionAnalysis(fen, result.getBestMove(), result.getScore(),
+            result.getDepth(), result.getStatistics().getNodes(), System.nanoTime() - start,
+            null);
+      } catch (RuntimeException e) {
+        // the search may have been left mid-tree, so it is not trusted with another position
+        this.search = null;
+        return new PositionAnalysis(fen, Move.NONE, 0, 0, 0, System.nanoTime() - start,
+            "analysis failed: " + e);
+      }
+    }
+  }
+}
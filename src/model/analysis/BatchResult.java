@@ -0,0 +1,102 @@
+package model.analysis;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The analyses of a batch of positions, in the order they were given, with how long the batch
+ * took and how long each position took. Latency percentiles are exact, worked out from every
+ * position's latency rather than from a bucketed histogram.
+ */
+public final class BatchResult {
+
+  private final List<PositionAnalysis> analyses;
+  private final long elapsedNanos;
+  // every position's latency in nanoseconds, in increasing order
+  private final long[] latencies;
+
+  BatchResult(List<PositionAnalysis> analyses, long elapsedNanos) {
+    this.analyses = Collections.unmodifiableList(analyses);
+    this.elapsedNanos = elapsedNanos;
+    this.latencies = new long[analyses.size()];
+    for (int i = 0; i < this.latencies.length; i++) {
+      this.latencies[i] = analyses.get(i).getLatencyNanos();
+    }
+    Arrays.sort(this.latencies);
+  }
+
+  public List<PositionAnalysis> getAnalyses() {
+    return this.analyses;
+  }
+
+  public PositionAnalysis get(int index) {
+    return this.analyses.get(index);
+  }
+
+  public int size() {
+    return this.analyses.size();
+  }
+
+  /**
+   * The number of positions that could not be analysed.
+   */
+  public int getFailures() {
+    int failures = 0;
+    for (PositionAnalysis analysis : this.analyses) {
+      if (!analysis.isValid()) {
+        failures++;
+      }
+    }
+    return failures;
+  }
+
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  public double getPositionsPerSecond() {
+    return this.elapsedNanos == 0 ? 0 : this.analyses.size() * 1e9 / this.elapsedNanos;
+  }
+
+  /**
+   * The latency in nanoseconds that the given percentage of positions took no longer than, by the
+   * nearest-rank method, or 0 for an empty batch.
+   *
+   * @param percentile the percentage of positions, from 0 to 100
+   * @throws IllegalArgumentException if the percentile is out of range
+   */
+  public long getLatencyPercentile(double percentile)
+      throws IllegalArgumentException {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile " + percentile + " out of bounds for range "
+          + "[0,100].");
+    }
+    if (this.latencies.length == 0) {
+      return 0;
+    }
+    int rank = Math.max(1, (int) Math.ceil(this.latencies.length * percentile / 100));
+    return this.latencies[rank - 1];
+  }
+
+  public double getMeanLatencyNanos() {
+    long sum = 0;
+    for (long latency : this.latencies) {
+      sum += latency;
+    }
+    return this.latencies.length == 0 ? 0 : (double) sum / this.latencies.length;
+  }
+
+  public long getMaxLatencyNanos() {
+    return this.latencies.length == 0 ? 0 : this.latencies[this.latencies.length - 1];
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d positions (%d failed) in %.1fms, %.0f positions/s, latency_nanos: "
+            + "mean=%.1f p50=%d p90=%d p99=%d max=%d", this.analyses.size(), this.getFailures(),
+        this.elapsedNanos / 1e6, this.getPositionsPerSecond(), this.getMeanLatencyNanos(),
+        this.getLatencyPercentile(50), this.getLatencyPercentile(90),
+        this.getLatencyPercentile(99), this.getMaxLatencyNanos());
+  }
+}
@@ -0,0 +1,18 @@
+package model.analysis;
+
+/**
+ * What a {@link BatchAnalyzer} works out for each position.
+ */
+public enum EAnalysisMode {
+  EVALUATE("Static evaluation"), BEST_MOVE("Best move");
+
+  private final String name;
+
+  private EAnalysisMode(String name) {
+    this.name = name;
+  }
+
+  public String toString() {
+    return this.name;
+  }
+}
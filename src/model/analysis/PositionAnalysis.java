@@ -0,0 +1,84 @@
+package model.analysis;
+
+import model.board.Move;
+
+/**
+ * The analysis of one position in a batch: its score and, when searched, the best move found, or
+ * the reason the position could not be analysed.
+ */
+public final class PositionAnalysis {
+
+  private final String fen;
+  private final int bestMove;
+  private final int score;
+  private final int depth;
+  private final long nodes;
+  private final long latencyNanos;
+  private final String error;
+
+  PositionAnalysis(String fen, int bestMove, int score, int depth, long nodes,
+      long latencyNanos, String error) {
+    this.fen = fen;
+    this.bestMove = bestMove;
+    this.score = score;
+    this.depth = depth;
+    this.nodes = nodes;
+    this.latencyNanos = latencyNanos;
+    this.error = error;
+  }
+
+  public String getFen() {
+    return this.fen;
+  }
+
+  /**
+   * The best move found, or {@link Move#NONE} if the position was only evaluated, has no legal
+   * moves, or could not be analysed.
+   */
+  public int getBestMove() {
+    return this.bestMove;
+  }
+
+  /**
+   * The score in centipawns from the point of view of the side to move.
+   */
+  public int getScore() {
+    return this.score;
+  }
+
+  /**
+   * The depth searched, or 0 if the position was only evaluated.
+   */
+  public int getDepth() {
+    return this.depth;
+  }
+
+  public long getNodes() {
+    return this.nodes;
+  }
+
+  public long getLatencyNanos() {
+    return this.latencyNanos;
+  }
+
+  public boolean isValid() {
+    return this.error == null;
+  }
+
+  /**
+   * Why the position could not be analysed, or {@code null} if it was.
+   */
+  public String getError() {
+    return this.error;
+  }
+
+  @Override
+  public String toString() {
+    if (!this.isValid()) {
+      return this.fen + ": " + this.error;
+    }
+    return this.fen + ": score " + this.score
+        + (this.bestMove == Move.NONE ? "" : ", best " + Move.toString(this.bestMove)
+        + " at depth " + this.depth);
+  }
+}
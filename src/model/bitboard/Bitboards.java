@@ -0,0 +1,191 @@
+package model.bitboard;
+
+import model.Utils;
+import model.posn.BoardPosn;
+
+/**
+ * Static helpers for working with an 8x8 board as a 64-bit bitboard, where each bit represents
+ * one square. Squares are indexed as {@code row * 8 + col}, matching the row and column of a
+ * {@link BoardPosn}, so square 0 is the top-left corner of the board (black's back rank) and
+ * square 63 is the bottom-right corner (white's back rank).
+ * <p>Supports:</p>
+ * <ul>
+ *   <li>
+ *     Converting between {@link BoardPosn}s and square indices
+ *   </li>
+ *   <li>
+ *     Precomputed king, knight and pawn attack sets
+ *   </li>
+ *   <li>
+ *     Sliding (rook, bishop, queen) attack sets against a given occupancy
+ *   </li>
+ * </ul>
+ * <p>None of the attack methods allocate, so they are safe to call from hot loops.</p>
+ */
+public final class Bitboards {
+
+  public static final int BOARD_WIDTH = BoardPosn.MAX_DIMENSION + 1;
+  public static final int NUM_SQUARES = BOARD_WIDTH * BOARD_WIDTH;
+
+  public static final long EMPTY = 0L;
+
+  private static final long[] KING_ATTACKS = new long[NUM_SQUARES];
+  private static final long[] KNIGHT_ATTACKS = new long[NUM_SQUARES];
+  // indexed by [0 = white, 1 = black][square]
+  private static final long[][] PAWN_ATTACKS = new long[2][NUM_SQUARES];
+
+  private static final int[][] KING_STEPS =
+      {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+  private static final int[][] KNIGHT_STEPS =
+      {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+
+  static {
+    for (int sq = 0; sq < NUM_SQUARES; sq++) {
+      KING_ATTACKS[sq] = stepAttacks(sq, KING_STEPS);
+      KNIGHT_ATTACKS[sq] = stepAttacks(sq, KNIGHT_STEPS);
+      // white pawns advance towards row 0, black pawns towards row 7
+      PAWN_ATTACKS[0][sq] = stepAttacks(sq, new int[][]{{-1, -1}, {-1, 1}});
+      PAWN_ATTACKS[1][sq] = stepAttacks(sq, new int[][]{{1, -1}, {1, 1}});
+    }
+  }
+
+  private Bitboards() {
+  }
+
+  /**
+   * The square index of the given position.
+   *
+   * @param posn the position on the board
+   * @return {@code row * 8 + col} of the position
+   * @throws IllegalArgumentException if the position is null or off of the board
+   */
+  public static int squareOf(BoardPosn posn)
+      throws IllegalArgumentException {
+    Utils.checkNotNull(posn, "cannot find the square of a null BoardPosn");
+    return squareOf(Utils.checkIntBetween(posn.row(), 0, BoardPosn.MAX_DIMENSION),
+        Utils.checkIntBetween(posn.col(), 0, BoardPosn.MAX_DIMENSION));
+  }
+
+  public static int squareOf(int row, int col) {
+    return row * BOARD_WIDTH + col;
+  }
+
+  public static BoardPosn posnOf(int square)
+      throws IllegalArgumentException {
+    Utils.checkIntBetween(square, 0, NUM_SQUARES - 1);
+    return new BoardPosn(rowOf(square), colOf(square));
+  }
+
+  public static int rowOf(int square) {
+    return square >>> 3;
+  }
+
+  public static int colOf(int square) {
+    return square & 7;
+  }
+
+  /**
+   * Mirrors a square across the horizontal centre line of the board, so that a square on white's
+   * side maps to the equivalent square on black's side.
+   *
+   * @param square the square to mirror
+   * @return the mirrored square
+   */
+  public static int flipRow(int square) {
+    return square ^ 56;
+  }
+
+  public static long bit(int square) {
+    return 1L << square;
+  }
+
+  public static boolean contains(long bitboard, int square) {
+    return (bitboard & bit(square)) != 0;
+  }
+
+  /**
+   * The index of the lowest set square in the given bitboard, or 64 if it is empty.
+   */
+  public static int lowestSquare(long bitboard) {
+    return Long.numberOfTrailingZeros(bitboard);
+  }
+
+  public static int count(long bitboard) {
+    return Long.bitCount(bitboard);
+  }
+
+  public static long kingAttacks(int square) {
+    return KING_ATTACKS[square];
+  }
+
+  public static long knightAttacks(int square) {
+    return KNIGHT_ATTACKS[square];
+  }
+
+  /**
+   * The squares attacked by a pawn standing on {@code square}.
+   *
+   * @param white  whether the pawn is white (moving towards row 0) or black
+   * @param square the square the pawn stands on
+   * @return the (at most two) diagonally forward squares
+   */
+  public static long pawnAttacks(boolean white, int square) {
+    return PAWN_ATTACKS[white ? 0 : 1][square];
+  }
+
+  public static long rookAttacks(int square, long occupied) {
+    return slide(square, occupied, -1, 0)
+        | slide(square, occupied, 1, 0)
+        | slide(square, occupied, 0, -1)
+        | slide(square, occupied, 0, 1);
+  }
+
+  public static long bishopAttacks(int square, long occupied) {
+    return slide(square, occupied, -1, -1)
+        | slide(square, occupied, -1, 1)
+        | slide(square, occupied, 1, -1)
+        | slide(square, occupied, 1, 1);
+  }
+
+  public static long queenAttacks(int square, long occupied) {
+    return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+  }
+
+  /**
+   * Walks from {@code square} in one direction until the edge of the board or the first occupied
+   * square, which is included in the result.
+   */
+  private static long slide(int square, long occupied, int rowStep, int colStep) {
+    long attacks = EMPTY;
+    int row = rowOf(square) + rowStep;
+    int col = colOf(square) + colStep;
+
+    while (onBoard(row, col)) {
+      int target = squareOf(row, col);
+      attacks |= bit(target);
+      if (contains(occupied, target)) {
+        break;
+      }
+      row += rowStep;
+      col += colStep;
+    }
+
+    return attacks;
+  }
+
+  private static long stepAttacks(int square, int[][] steps) {
+    long attacks = EMPTY;
+    for (int[] step : steps) {
+      int row = rowOf(square) + step[0];
+      int col = colOf(square) + step[1];
+      if (onBoard(row, col)) {
+        attacks |= bit(squareOf(row, col));
+      }
+    }
+    return attacks;
+  }
+
+  private static boolean onBoard(int row, int col) {
+    return row >= 0 && row < BOARD_WIDTH && col >= 0 && col < BOARD_WIDTH;
+  }
+}
@@ -0,0 +1,208 @@
+package model.bitboard;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import model.Utils;
+import model.posn.BoardGeometry;
+
+/**
+ * <p>Bitboards for boards with more than 64 squares, such as 10x8 and 10x10, where a set of
+ * squares is a {@code long[]} of {@link #getWords()} words and square {@code s} is bit
+ * {@code s % 64} of word {@code s / 64}. Squares are indexed as in {@link BoardGeometry}.</p>
+ * <p>One instance per geometry holds the precomputed tables:</p>
+ * <ul>
+ *   <li>
+ *     King, knight and pawn attack sets for every square
+ *   </li>
+ *   <li>
+ *     The squares along each of the eight rays from every square, nearest first, for walking
+ *     sliding pieces against the board
+ *   </li>
+ * </ul>
+ * <p>The 8x8 board keeps using the single-{@code long} {@link Bitboards}; these tables work for
+ * it too, but are slower.</p>
+ */
+public final class WideBitboards {
+
+  public static final int WORD_BITS = Long.SIZE;
+
+  public static final int NUM_DIRECTIONS = 8;
+  // rays 0-3 run along rows and columns, rays 4-7 along diagonals
+  public static final int FIRST_DIAGONAL = 4;
+
+  private static final int[][] DIRECTION_STEPS =
+      {{-1, 0}, {1, 0}, {0, -1}, {0, 1}, {-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+  private static final int[][] KING_STEPS =
+      {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+  private static final int[][] KNIGHT_STEPS =
+      {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+
+  private static final Map<BoardGeometry, WideBitboards> TABLES = new ConcurrentHashMap<>();
+
+  private final BoardGeometry geometry;
+  private final int words;
+  private final long[][] kingAttacks;
+  private final long[][] knightAttacks;
+  // indexed by [0 = white, 1 = black][square]
+  private final long[][][] pawnAttacks;
+  private final int[][][] rays;
+
+  private WideBitboards(BoardGeometry geometry) {
+    this.geometry = geometry;
+    int numSquares = geometry.getNumSquares();
+    this.words = (numSquares + WORD_BITS - 1) / WORD_BITS;
+    this.kingAttacks = new long[numSquares][];
+    this.knightAttacks = new long[numSquares][];
+    this.pawnAttacks = new long[2][numSquares][];
+    this.rays = new int[NUM_DIRECTIONS][numSquares][];
+
+    for (int sq = 0; sq < numSquares; sq++) {
+      this.kingAttacks[sq] = this.stepAttacks(sq, KING_STEPS);
+      this.knightAttacks[sq] = this.stepAttacks(sq, KNIGHT_STEPS);
+      // white pawns advance towards row 0, black pawns towards the last row
+      this.pawnAttacks[0][sq] = this.stepAttacks(sq, new int[][]{{-1, -1}, {-1, 1}});
+      this.pawnAttacks[1][sq] = this.stepAttacks(sq, new int[][]{{1, -1}, {1, 1}});
+      for (int direction = 0; direction < NUM_DIRECTIONS; direction++) {
+        this.rays[direction][sq] = this.ray(sq, DIRECTION_STEPS[direction]);
+      }
+    }
+  }
+
+  /**
+   * The tables for a geometry, built on first use and shared afterwards.
+   *
+   * @throws IllegalArgumentException if the geometry is null
+   */
+  public static WideBitboards of(BoardGeometry geometry)
+      throws IllegalArgumentException {
+    Utils.checkNotNull(geometry, "cannot build bitboards for a null BoardGeometry");
+    return TABLES.computeIfAbsent(geometry, WideBitboards::new);
+  }
+
+  public BoardGeometry getGeometry() {
+    return this.geometry;
+  }
+
+  /**
+   * The number of {@code long}s in each set of squares.
+   */
+  public int getWords() {
+    return this.words;
+  }
+
+  /**
+   * An empty set of squares.
+   */
+  public long[] newSet() {
+    return new long[this.words];
+  }
+
+  /**
+   * The squares a king on {@code square} attacks. The returned set is shared and must not be
+   * modified; the same goes for the other attack sets and rays.
+   */
+  public long[] kingAttacks(int square) {
+    return this.kingAttacks[square];
+  }
+
+  public long[] knightAttacks(int square) {
+    return this.knightAttacks[square];
+  }
+
+  /**
+   * The squares a pawn of the given colour on {@code square} attacks.
+   */
+  public long[] pawnAttacks(boolean white, int square) {
+    return this.pawnAttacks[white ? 0 : 1][square];
+  }
+
+  /**
+   * The squares along a ray from {@code square}, nearest first, up to the edge of the board.
+   *
+   * @param direction one of the {@link #NUM_DIRECTIONS} rays, orthogonal before
+   *                  {@link #FIRST_DIAGONAL} and diagonal from it
+   */
+  public int[] ray(int direction, int square) {
+    return this.rays[direction][square];
+  }
+
+  public static boolean contains(long[] set, int square) {
+    return (set[square / WORD_BITS] & 1L << square) != 0;
+  }
+
+  public static void add(long[] set, int square) {
+    set[square / WORD_BITS] |= 1L << square;
+  }
+
+  public static void remove(long[] set, int square) {
+    set[square / WORD_BITS] &= ~(1L << square);
+  }
+
+  /**
+   * Whether two sets share a square.
+   */
+  public static boolean intersects(long[] a, long[] b) {
+    for (int word = 0; word < a.length; word++) {
+      if ((a[word] & b[word]) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public static boolean isEmpty(long[] set) {
+    for (long word : set) {
+      if (word != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public static int count(long[] set) {
+    int count = 0;
+    for (long word : set) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  /**
+   * The lowest-indexed square in a set, or {@code -1} if the set is empty.
+   */
+  public static int lowestSquare(long[] set) {
+    for (int word = 0; word < set.length; word++) {
+      if (set[word] != 0) {
+        return word * WORD_BITS + Long.numberOfTrailingZeros(set[word]);
+      }
+    }
+    return -1;
+  }
+
+  private long[] stepAttacks(int square, int[][] steps) {
+    long[] attacks = this.newSet();
+    int row = this.geometry.rowOf(square);
+    int col = this.geometry.colOf(square);
+    for (int[] step : steps) {
+      if (this.geometry.contains(row + step[0], col + step[1])) {
+        add(attacks, this.geometry.squareOf(row + step[0], col + step[1]));
+      }
+    }
+    return attacks;
+  }
+
+  private int[] ray(int square, int[] step) {
+    int row = this.geometry.rowOf(square) + step[0];
+    int col = this.geometry.colOf(square) + step[1];
+    int length = 0;
+    int[] squares = new int[Math.max(this.geometry.getRows(), this.geometry.getCols())];
+    while (this.geometry.contains(row, col)) {
+      squares[length++] = this.geometry.squareOf(row, col);
+      row += step[0];
+      col += step[1];
+    }
+    int[] ray = new int[length];
+    System.arraycopy(squares, 0, ray, 0, length);
+    return ray;
+  }
+}
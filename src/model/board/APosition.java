@@ -0,0 +1,683 @@
+package model.board;
+
+import java.util.Arrays;
+import model.Utils;
+import model.metrics.ChessMetrics;
+import model.player.EChessPlayer;
+import model.posn.BoardGeometry;
+
+/**
+ * <p>The rules shared by every mutable chess position, whatever the shape of its board and however
+ * it stores its pieces:</p>
+ * <ul>
+ *   <li>
+ *     Reading and writing Forsyth-Edwards Notation, rejecting positions that cannot arise in a
+ *     game
+ *   </li>
+ *   <li>
+ *     Making and unmaking moves, including castling, en passant and promotion, with undo
+ *     information kept in a preallocated stack
+ *   </li>
+ *   <li>
+ *     Zobrist keys, the repetition history and the fifty-move counter
+ *   </li>
+ * </ul>
+ * <p>Subclasses decide how pieces are indexed for move generation and attack detection, and how
+ * moves are packed: {@link Position} uses 64-bit bitboards and 16-bit {@link Move}s on the
+ * standard board, and {@link WidePosition} uses {@code long[]} sets and 32-bit {@link WideMove}s
+ * on any {@link BoardGeometry}. Pieces are encoded as {@code colour * n + type}, where {@code n}
+ * is the subclass's number of piece types, and moves share the {@code Move.FLAG_} values.</p>
+ * <p>Castling moves the king from the middle column of its back row to the c-file on the queen's
+ * side or to the second column from the right edge on the king's side, and the rook from that
+ * edge to the square beside the king, which is the usual rule on 8x8 boards and in Capablanca
+ * chess.</p>
+ */
+public abstract class APosition {
+
+  public static final int WHITE = 0;
+  public static final int BLACK = 1;
+
+  public static final int PAWN = 0;
+  public static final int KNIGHT = 1;
+  public static final int BISHOP = 2;
+  public static final int ROOK = 3;
+  public static final int QUEEN = 4;
+  public static final int KING = 5;
+
+  public static final int NO_PIECE = -1;
+  public static final int NO_SQUARE = -1;
+
+  public static final int CASTLE_WHITE_KING = 1;
+  public static final int CASTLE_WHITE_QUEEN = 2;
+  public static final int CASTLE_BLACK_KING = 4;
+  public static final int CASTLE_BLACK_QUEEN = 8;
+
+  private static final String CASTLING_CHARS = "KQkq";
+  // how many of each piece type a side starts with at most, beyond which pieces must be promoted
+  private static final int[] STARTING_COUNTS = {0, 2, 2, 2, 1, 1, 1, 1};
+
+  // undo stack entries: captured piece + 1, castling rights, en passant square + 1
+  private static final int UNDO_CASTLING_SHIFT = 5;
+  private static final int UNDO_EN_PASSANT_SHIFT = 9;
+
+  protected final BoardGeometry geometry;
+  protected final int rows;
+  protected final int cols;
+  protected final int[] board;
+
+  protected int sideToMove;
+  protected int castlingRights;
+  protected int enPassantSquare;
+
+  private final String pieceChars;
+  private final int numPieceTypes;
+  private final int maxMoves;
+  private final int[] castlingMask;
+  private final int[] pieceCounts;
+  private final int[] moveBuffer;
+  private final RepetitionHistory history;
+
+  private int fullmoveNumber;
+  private long key;
+
+  // one entry per made move: captured piece, castling rights and en passant square before it
+  private int[] undoStack;
+  private int undoSize;
+
+  /**
+   * Creates an empty position, to be filled by {@link #load(String)}.
+   *
+   * @param geometry   the board the position is on
+   * @param pieceChars the FEN letter of every piece, indexed by piece code
+   * @param maxMoves   the most pseudo-legal moves any position on the board can have
+   * @throws IllegalArgumentException if the geometry or piece letters are null
+   */
+  protected APosition(BoardGeometry geometry, String pieceChars, int maxMoves)
+      throws IllegalArgumentException {
+    this.geometry = Utils.nonNullConstructor(geometry, "APosition", "BoardGeometry");
+    this.pieceChars = Utils.nonNullConstructor(pieceChars, "APosition", "String");
+    this.rows = geometry.getRows();
+    this.cols = geometry.getCols();
+    this.board = new int[geometry.getNumSquares()];
+    this.numPieceTypes = pieceChars.length() / 2;
+    this.maxMoves = maxMoves;
+    this.castlingMask = castlingMaskOf(geometry);
+    this.pieceCounts = new int[pieceChars.length()];
+    this.moveBuffer = new int[maxMoves];
+    this.history = new RepetitionHistory();
+    this.undoStack = new int[maxMoves];
+  }
+
+  /**
+   * For each square, the castling rights that survive a move from or to it: a king leaving its
+   * starting square loses both of its side's rights, and a rook leaving, or being captured on,
+   * its corner loses that side's right.
+   */
+  private static int[] castlingMaskOf(BoardGeometry geometry) {
+    int[] mask = new int[geometry.getNumSquares()];
+    Arrays.fill(mask, 15);
+    int cols = geometry.getCols();
+    int[] backRows = {geometry.getRows() - 1, 0};
+    int[] kingSides = {CASTLE_WHITE_KING, CASTLE_BLACK_KING};
+    int[] queenSides = {CASTLE_WHITE_QUEEN, CASTLE_BLACK_QUEEN};
+    for (int colour = WHITE; colour <= BLACK; colour++) {
+      mask[geometry.squareOf(backRows[colour], cols / 2)] &=
+          ~(kingSides[colour] | queenSides[colour]);
+      mask[geometry.squareOf(backRows[colour], cols - 1)] &= ~kingSides[colour];
+      mask[geometry.squareOf(backRows[colour], 0)] &= ~queenSides[colour];
+    }
+    return mask;
+  }
+
+  /**
+   * Replaces this position with one parsed from Forsyth-Edwards Notation, reusing its buffers.
+   * Castling rights without the king and rook on their starting squares, and an en passant square
+   * with no pawn that just moved two squares past it, are dropped rather than rejected.
+   *
+   * @param fen the position in FEN, with one rank per row of the board
+   * @throws IllegalArgumentException if the FEN is null or malformed, or describes a position that
+   *                                  cannot arise in a game: one without exactly one king per
+   *                                  side, with a pawn on the first or last rank, with more pieces
+   *                                  than promotions could give, or with the side not to move in
+   *                                  check
+   */
+  public void load(String fen)
+      throws IllegalArgumentException {
+    Utils.checkNotNull(fen, "cannot parse a null FEN");
+    String[] fields = fen.trim().split("\\s+");
+    if (fields.length < 4) {
+      throw new IllegalArgumentException("FEN needs at least 4 fields: " + fen);
+    }
+
+    this.clearBitboards();
+    Arrays.fill(this.board, NO_PIECE);
+    this.key = 0;
+    this.undoSize = 0;
+
+    String[] ranks = fields[0].split("/");
+    if (ranks.length != this.rows) {
+      throw new IllegalArgumentException("FEN does not have " + this.rows + " ranks: " + fen);
+    }
+    for (int row = 0; row < this.rows; row++) {
+      int col = 0;
+      int empty = 0;
+      for (char c : ranks[row].toCharArray()) {
+        if (Character.isDigit(c)) {
+          empty = empty * 10 + (c - '0');
+          continue;
+        }
+        col += empty;
+        empty = 0;
+        int piece = this.pieceChars.indexOf(c);
+        if (piece < 0 || col >= this.cols) {
+          throw new IllegalArgumentException("bad piece placement in FEN: " + fen);
+        }
+        this.put(piece, this.geometry.squareOf(row, col++));
+      }
+      if (col + empty != this.cols) {
+        throw new IllegalArgumentException("FEN rank " + (this.rows - row) + " does not fill "
+            + this.cols + " columns: " + fen);
+      }
+    }
+
+    if (!fields[1].equals("w") && !fields[1].equals("b")) {
+      throw new IllegalArgumentException("bad side to move in FEN: " + fen);
+    }
+    this.sideToMove = fields[1].equals("w") ? WHITE : BLACK;
+
+    this.castlingRights = 0;
+    for (char c : fields[2].toCharArray()) {
+      int right = CASTLING_CHARS.indexOf(c);
+      if (right >= 0) {
+        this.castlingRights |= 1 << right;
+      } else if (c != '-') {
+        throw new IllegalArgumentException("bad castling rights in FEN: " + fen);
+      }
+    }
+
+    this.enPassantSquare = fields[3].equals("-")
+        ? NO_SQUARE : WideMove.parseSquare(fields[3], this.geometry);
+    this.checkReachable(fen);
+
+    int halfmoveClock = fields.length > 4 ? Integer.parseInt(fields[4]) : 0;
+    this.fullmoveNumber = fields.length > 5 ? Integer.parseInt(fields[5]) : 1;
+
+    this.key ^= this.stateKey();
+    this.history.reset(this.key, halfmoveClock);
+  }
+
+  /**
+   * Rejects piece placements that move generation cannot handle, and drops the castling rights
+   * and en passant square that do not apply.
+   */
+  private void checkReachable(String fen)
+      throws IllegalArgumentException {
+    Arrays.fill(this.pieceCounts, 0);
+    for (int square = 0; square < this.board.length; square++) {
+      int piece = this.board[square];
+      if (piece == NO_PIECE) {
+        continue;
+      }
+      this.pieceCounts[piece]++;
+      int row = this.geometry.rowOf(square);
+      if (this.pieceType(piece) == PAWN && (row == 0 || row == this.rows - 1)) {
+        throw new IllegalArgumentException("pawn on the first or last rank: " + fen);
+      }
+    }
+
+    for (int colour = WHITE; colour <= BLACK; colour++) {
+      if (this.pieceCounts[this.pieceCode(colour, KING)] != 1) {
+        throw new IllegalArgumentException("each side needs exactly one king: " + fen);
+      }
+      int promoted = 0;
+      for (int type = KNIGHT; type < this.numPieceTypes; type++) {
+        promoted += Math.max(0, this.pieceCounts[this.pieceCode(colour, type)]
+            - STARTING_COUNTS[type]);
+      }
+      if (this.pieceCounts[this.pieceCode(colour, PAWN)] + promoted > this.cols) {
+        throw new IllegalArgumentException("too many pieces for one side: " + fen);
+      }
+    }
+    if (this.isAttacked(this.getKingSquare(this.sideToMove ^ 1), this.sideToMove)) {
+      throw new IllegalArgumentException("the side not to move is in check: " + fen);
+    }
+
+    this.keepCastlingRight(CASTLE_WHITE_KING, WHITE, this.cols - 1);
+    this.keepCastlingRight(CASTLE_WHITE_QUEEN, WHITE, 0);
+    this.keepCastlingRight(CASTLE_BLACK_KING, BLACK, this.cols - 1);
+    this.keepCastlingRight(CASTLE_BLACK_QUEEN, BLACK, 0);
+
+    if (this.enPassantSquare != NO_SQUARE) {
+      // the pawn that just moved two squares stands one square beyond the en passant square
+      int forward = this.sideToMove == WHITE ? this.cols : -this.cols;
+      int row = this.sideToMove == WHITE ? 2 : this.rows - 3;
+      if (this.geometry.rowOf(this.enPassantSquare) != row
+          || this.board[this.enPassantSquare] != NO_PIECE
+          || this.board[this.enPassantSquare - forward] != NO_PIECE
+          || this.board[this.enPassantSquare + forward]
+          != this.pieceCode(this.sideToMove ^ 1, PAWN)) {
+        this.enPassantSquare = NO_SQUARE;
+      }
+    }
+  }
+
+  private void keepCastlingRight(int right, int colour, int rookCol) {
+    int backRow = colour == WHITE ? this.rows - 1 : 0;
+    if (this.board[this.geometry.squareOf(backRow, this.cols / 2)] != this.pieceCode(colour, KING)
+        || this.board[this.geometry.squareOf(backRow, rookCol)] != this.pieceCode(colour, ROOK)) {
+      this.castlingRights &= ~right;
+    }
+  }
+
+  /**
+   * Renders this position in Forsyth-Edwards Notation.
+   */
+  public String toFen() {
+    StringBuilder fen = new StringBuilder();
+    for (int row = 0; row < this.rows; row++) {
+      int empty = 0;
+      for (int col = 0; col < this.cols; col++) {
+        int piece = this.board[this.geometry.squareOf(row, col)];
+        if (piece == NO_PIECE) {
+          empty++;
+        } else {
+          if (empty > 0) {
+            fen.append(empty);
+            empty = 0;
+          }
+          fen.append(this.pieceChars.charAt(piece));
+        }
+      }
+      if (empty > 0) {
+        fen.append(empty);
+      }
+      if (row < this.rows - 1) {
+        fen.append('/');
+      }
+    }
+
+    fen.append(this.sideToMove == WHITE ? " w " : " b ");
+    if (this.castlingRights == 0) {
+      fen.append('-');
+    }
+    for (int right = 0; right < CASTLING_CHARS.length(); right++) {
+      if ((this.castlingRights & 1 << right) != 0) {
+        fen.append(CASTLING_CHARS.charAt(right));
+      }
+    }
+    fen.append(' ')
+        .append(this.enPassantSquare == NO_SQUARE
+            ? "-" : WideMove.squareName(this.enPassantSquare, this.geometry))
+        .append(' ').append(this.getHalfmoveClock())
+        .append(' ').append(this.fullmoveNumber);
+    return fen.toString();
+  }
+
+  /**
+   * Makes this position a copy of another on the same board, apart from the pieces' bitboards,
+   * which the subclass copies. The repetition history of the copy starts afresh at the copied
+   * position.
+   */
+  protected void copyStateFrom(APosition other) {
+    System.arraycopy(other.board, 0, this.board, 0, this.board.length);
+    this.sideToMove = other.sideToMove;
+    this.castlingRights = other.castlingRights;
+    this.enPassantSquare = other.enPassantSquare;
+    this.fullmoveNumber = other.fullmoveNumber;
+    this.key = other.key;
+    this.undoSize = 0;
+    this.history.reset(other.key, other.getHalfmoveClock());
+  }
+
+  public static EChessPlayer playerOf(int colour) {
+    return colour == WHITE ? EChessPlayer.WHITE : EChessPlayer.BLACK;
+  }
+
+  /**
+   * The colour of a piece code of this kind of position.
+   */
+  public final int pieceColour(int piece) {
+    return piece / this.numPieceTypes;
+  }
+
+  /**
+   * The type of a piece code of this kind of position.
+   */
+  public final int pieceType(int piece) {
+    return piece % this.numPieceTypes;
+  }
+
+  /**
+   * The piece code of this kind of position for a colour and type.
+   */
+  public final int pieceCode(int colour, int type) {
+    return colour * this.numPieceTypes + type;
+  }
+
+  public BoardGeometry getGeometry() {
+    return this.geometry;
+  }
+
+  /**
+   * The largest number of pseudo-legal moves any position on this board can have, for sizing
+   * move buffers.
+   */
+  public int getMaxMoves() {
+    return this.maxMoves;
+  }
+
+  public int getSideToMove() {
+    return this.sideToMove;
+  }
+
+  public int getPieceAt(int square) {
+    return this.board[square];
+  }
+
+  public long getKey() {
+    return this.key;
+  }
+
+  public int getCastlingRights() {
+    return this.castlingRights;
+  }
+
+  public int getEnPassantSquare() {
+    return this.enPassantSquare;
+  }
+
+  public int getHalfmoveClock() {
+    return this.history.getHalfmoveClock();
+  }
+
+  public int getFullmoveNumber() {
+    return this.fullmoveNumber;
+  }
+
+  /**
+   * The number of moves made on this position since it was created or loaded.
+   */
+  public int getPly() {
+    return this.undoSize;
+  }
+
+  /**
+   * The piece captured by the last move made, or {@link #NO_PIECE} if it captured nothing.
+   *
+   * @throws IllegalStateException if no move has been made since the position was loaded
+   */
+  public int getLastCaptured()
+      throws IllegalStateException {
+    if (this.undoSize == 0) {
+      throw new IllegalStateException("no move has been made");
+    }
+    return (this.undoStack[this.undoSize - 1] & ((1 << UNDO_CASTLING_SHIFT) - 1)) - 1;
+  }
+
+  public abstract int getKingSquare(int colour);
+
+  /**
+   * Whether any piece of colour {@code byColour} attacks {@code square}.
+   */
+  public abstract boolean isAttacked(int square, int byColour);
+
+  /**
+   * Whether the side to move is in check.
+   */
+  public boolean isInCheck() {
+    return this.isAttacked(this.getKingSquare(this.sideToMove), this.sideToMove ^ 1);
+  }
+
+  /**
+   * Writes every pseudo-legal move for the side to move into {@code moves}.
+   *
+   * @return the number of moves written
+   */
+  public abstract int generatePseudoLegalMoves(int[] moves);
+
+  /**
+   * Writes every legal move for the side to move into {@code moves}.
+   *
+   * @return the number of moves written
+   */
+  public int generateLegalMoves(int[] moves) {
+    int pseudoLegal = this.generatePseudoLegalMoves(moves);
+    int count = 0;
+    for (int i = 0; i < pseudoLegal; i++) {
+      if (this.isLegal(moves[i])) {
+        moves[count++] = moves[i];
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Whether a pseudo-legal move leaves the mover's king safe.
+   */
+  public boolean isLegal(int move) {
+    int us = this.sideToMove;
+    this.make(move);
+    boolean legal = !this.isAttacked(this.getKingSquare(us), us ^ 1);
+    this.unmake(move);
+    return legal;
+  }
+
+  /**
+   * Whether the side to move has at least one legal move.
+   */
+  public boolean hasLegalMove() {
+    int count = this.generatePseudoLegalMoves(this.moveBuffer);
+    for (int i = 0; i < count; i++) {
+      if (this.isLegal(this.moveBuffer[i])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public abstract int moveFrom(int move);
+
+  public abstract int moveTo(int move);
+
+  /**
+   * The {@code Move.FLAG_} value of a move.
+   */
+  public abstract int moveFlag(int move);
+
+  /**
+   * The piece type a promotion promotes to.
+   *
+   * @throws IllegalArgumentException if the move is not a promotion
+   */
+  public abstract int movePromotionType(int move)
+      throws IllegalArgumentException;
+
+  public final boolean isPromotion(int move) {
+    return this.moveFlag(move) >= Move.FLAG_PROMOTION;
+  }
+
+  /**
+   * Renders a move in long algebraic notation, e.g. {@code e2e4} or {@code e7e8q}.
+   */
+  public abstract String moveToString(int move);
+
+  /**
+   * The square of the piece a move captures, which is not where the move lands for en passant.
+   */
+  public final int captureSquareOf(int move) {
+    int to = this.moveTo(move);
+    return this.moveFlag(move) == Move.FLAG_EN_PASSANT
+        ? this.geometry.squareOf(this.geometry.rowOf(this.moveFrom(move)), this.geometry.colOf(to))
+        : to;
+  }
+
+  /**
+   * Where the rook starts when the king castles to {@code kingTo}.
+   */
+  public final int castleRookFrom(int kingTo, boolean kingSide) {
+    return this.geometry.squareOf(this.geometry.rowOf(kingTo), kingSide ? this.cols - 1 : 0);
+  }
+
+  /**
+   * Where the rook lands when the king castles to {@code kingTo}.
+   */
+  public final int castleRookTo(int kingTo, boolean kingSide) {
+    return kingSide ? kingTo - 1 : kingTo + 1;
+  }
+
+  /**
+   * Plays a pseudo-legal move for the side to move.
+   *
+   * @param move the move to play, as generated for this position
+   */
+  public final void make(int move) {
+    ChessMetrics.recordMake();
+    int from = this.moveFrom(move);
+    int to = this.moveTo(move);
+    int flag = this.moveFlag(move);
+    int us = this.sideToMove;
+    int moving = this.board[from];
+
+    int captureSquare = flag == Move.FLAG_EN_PASSANT
+        ? to + (us == WHITE ? this.cols : -this.cols)
+        : to;
+    int captured = this.board[captureSquare];
+
+    if (this.undoSize == this.undoStack.length) {
+      this.undoStack = Arrays.copyOf(this.undoStack, this.undoStack.length * 2);
+    }
+    this.undoStack[this.undoSize++] = (captured + 1)
+        | this.castlingRights << UNDO_CASTLING_SHIFT
+        | (this.enPassantSquare + 1) << UNDO_EN_PASSANT_SHIFT;
+
+    this.key ^= this.stateKey();
+
+    if (captured != NO_PIECE) {
+      this.remove(captured, captureSquare);
+    }
+    this.remove(moving, from);
+    this.put(flag >= Move.FLAG_PROMOTION
+        ? this.pieceCode(us, this.movePromotionType(move)) : moving, to);
+
+    if (flag == Move.FLAG_KING_CASTLE) {
+      this.movePiece(this.castleRookFrom(to, true), this.castleRookTo(to, true));
+    } else if (flag == Move.FLAG_QUEEN_CASTLE) {
+      this.movePiece(this.castleRookFrom(to, false), this.castleRookTo(to, false));
+    }
+
+    this.castlingRights &= this.castlingMask[from] & this.castlingMask[to];
+    this.enPassantSquare = flag == Move.FLAG_DOUBLE_PUSH ? (from + to) / 2 : NO_SQUARE;
+    if (us == BLACK) {
+      this.fullmoveNumber++;
+    }
+    this.sideToMove = us ^ 1;
+
+    this.key ^= this.stateKey();
+    this.history.push(this.key, captured != NO_PIECE || this.pieceType(moving) == PAWN);
+  }
+
+  /**
+   * Takes back the last move made with {@link #make(int)}.
+   *
+   * @param move the move that was made
+   */
+  public final void unmake(int move) {
+    ChessMetrics.recordUnmake();
+    this.history.pop();
+    int undo = this.undoStack[--this.undoSize];
+    int from = this.moveFrom(move);
+    int to = this.moveTo(move);
+    int flag = this.moveFlag(move);
+
+    this.key ^= this.stateKey();
+
+    this.sideToMove ^= 1;
+    int us = this.sideToMove;
+    if (us == BLACK) {
+      this.fullmoveNumber--;
+    }
+    this.castlingRights = (undo >>> UNDO_CASTLING_SHIFT) & 15;
+    this.enPassantSquare = (undo >>> UNDO_EN_PASSANT_SHIFT) - 1;
+
+    // the rook goes back first, as it may have landed on the king's starting square
+    if (flag == Move.FLAG_KING_CASTLE) {
+      this.movePiece(this.castleRookTo(to, true), this.castleRookFrom(to, true));
+    } else if (flag == Move.FLAG_QUEEN_CASTLE) {
+      this.movePiece(this.castleRookTo(to, false), this.castleRookFrom(to, false));
+    }
+
+    int placed = this.board[to];
+    this.remove(placed, to);
+    this.put(flag >= Move.FLAG_PROMOTION ? this.pieceCode(us, PAWN) : placed, from);
+
+    int captured = (undo & ((1 << UNDO_CASTLING_SHIFT) - 1)) - 1;
+    if (captured != NO_PIECE) {
+      this.put(captured, flag == Move.FLAG_EN_PASSANT
+          ? to + (us == WHITE ? this.cols : -this.cols)
+          : to);
+    }
+
+    this.key ^= this.stateKey();
+  }
+
+  /**
+   * The number of times the current position occurred before, since the last irreversible move.
+   */
+  public int countRepetitions() {
+    return this.history.countRepetitions();
+  }
+
+  public boolean isThreefoldRepetition() {
+    return this.history.isThreefoldRepetition();
+  }
+
+  public boolean isFiftyMoveDraw() {
+    return this.history.isFiftyMoveDraw();
+  }
+
+  /**
+   * Empties the subclass's piece sets, before a position is loaded.
+   */
+  abstract void clearBitboards();
+
+  abstract void addToBitboards(int piece, int square);
+
+  abstract void removeFromBitboards(int piece, int square);
+
+  private void movePiece(int from, int to) {
+    int piece = this.board[from];
+    this.remove(piece, from);
+    this.put(piece, to);
+  }
+
+  private void put(int piece, int square) {
+    this.board[square] = piece;
+    this.addToBitboards(piece, square);
+    this.key ^= Zobrist.PIECE_SQUARE[piece][square];
+  }
+
+  private void remove(int piece, int square) {
+    this.board[square] = NO_PIECE;
+    this.removeFromBitboards(piece, square);
+    this.key ^= Zobrist.PIECE_SQUARE[piece][square];
+  }
+
+  /**
+   * The part of the key that is not piece placement.
+   */
+  private long stateKey() {
+    long state = Zobrist.CASTLING[this.castlingRights];
+    if (this.sideToMove == BLACK) {
+      state ^= Zobrist.BLACK_TO_MOVE;
+    }
+    if (this.enPassantSquare != NO_SQUARE) {
+      state ^= Zobrist.EN_PASSANT_FILE[this.geometry.colOf(this.enPassantSquare)];
+    }
+    return state;
+  }
+
+  @Override
+  public String toString() {
+    return this.toFen();
+  }
+}
@@ -0,0 +1,248 @@
+package model.board;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import model.Utils;
+
+/**
+ * <p>The moves of a game played on an {@link APosition}, stored compactly enough to keep for long
+ * sessions and replays. Each ply is one {@code int} entry packing the {@link Move} or
+ * {@link WideMove} with the piece it captured, so what has been captured can be worked out from
+ * the entries alone.
+ * Every {@link #CHECKPOINT_INTERVAL} plies the position is also kept as FEN. A 300-ply game takes
+ * a little over a kilobyte of entries and about as much again of checkpoints.</p>
+ * <p>The history has a current ply, which is where the position stands:</p>
+ * <ul>
+ *   <li>
+ *     {@link #undo()} and {@link #redo()} step it back and forth by unmaking and
+ *     making one move. The position only remembers the draw state of its most recent
+ *     {@link RepetitionHistory#CAPACITY} plies, so once undoing would take it back further than
+ *     it can see, {@code undo()} jumps instead
+ *   </li>
+ *   <li>
+ *     {@link #jumpTo(int)} reloads the nearest checkpoint far enough back for the draw
+ *     rules to see every position that matters, and replays from there, so it costs at most
+ *     {@code CHECKPOINT_INTERVAL + RepetitionHistory.FIFTY_MOVE_PLIES} moves however long the
+ *     game is
+ *   </li>
+ *   <li>
+ *     Playing a move anywhere other than at the end discards the moves that followed, as a text
+ *     editor discards its redo history
+ *   </li>
+ * </ul>
+ * <p>The history makes and unmakes moves on the position it was created for, which should not be
+ * changed other than through the history while it is kept.</p>
+ */
+public final class GameHistory {
+
+  public static final int CHECKPOINT_INTERVAL = 32;
+
+  private static final int INITIAL_CAPACITY = 64;
+  private static final int CAPTURED_SHIFT = 24;
+  private static final int MOVE_MASK = (1 << CAPTURED_SHIFT) - 1;
+  // how far back from the furthest ply it has reached the position can be unmade while it still
+  // sees every ply the draw rules look at
+  private static final int MAX_UNMAKE_DEPTH =
+      RepetitionHistory.CAPACITY - 1 - RepetitionHistory.FIFTY_MOVE_PLIES;
+
+  private final APosition position;
+  private final List<String> checkpoints;
+  private int[] entries;
+  private int size;
+  private int ply;
+  // the most moves the position has had made on it since it was last loaded
+  private int furthestPositionPly;
+
+  /**
+   * Creates an empty history of a game starting from the given position.
+   *
+   * @param position the position the game is played on, which becomes the first checkpoint
+   * @throws IllegalArgumentException if the position is null
+   */
+  public GameHistory(APosition position)
+      throws IllegalArgumentException {
+    this.position = Utils.nonNullConstructor(position, "GameHistory", "APosition");
+    this.checkpoints = new ArrayList<>();
+    this.checkpoints.add(position.toFen());
+    this.entries = new int[INITIAL_CAPACITY];
+  }
+
+  /**
+   * The move packed in a history entry.
+   */
+  public static int moveOf(int entry) {
+    return entry & MOVE_MASK;
+  }
+
+  /**
+   * The piece captured by the move in a history entry, or {@link APosition#NO_PIECE}.
+   */
+  public static int capturedOf(int entry) {
+    return (entry >>> CAPTURED_SHIFT) - 1;
+  }
+
+  /**
+   * Makes a move on the position and records it at the current ply, discarding any moves that
+   * could have been redone.
+   *
+   * @param move a legal move in the position
+   */
+  public void play(int move) {
+    if (this.ply < this.size) {
+      this.size = this.ply;
+      while ((this.checkpoints.size() - 1) * CHECKPOINT_INTERVAL > this.ply) {
+        this.checkpoints.remove(this.checkpoints.size() - 1);
+      }
+    }
+    if (this.size == this.entries.length) {
+      this.entries = Arrays.copyOf(this.entries, this.entries.length * 2);
+    }
+    this.position.make(move);
+    this.entries[this.size++] = move | (this.position.getLastCaptured() + 1) << CAPTURED_SHIFT;
+    this.ply++;
+    this.reached();
+    if (this.ply % CHECKPOINT_INTERVAL == 0
+        && this.checkpoints.size() <= this.ply / CHECKPOINT_INTERVAL) {
+      this.checkpoints.add(this.position.toFen());
+    }
+  }
+
+  public boolean canUndo() {
+    return this.ply > 0;
+  }
+
+  public boolean canRedo() {
+    return this.ply < this.size;
+  }
+
+  /**
+   * Takes back the move before the current ply.
+   *
+   * @return the entry of the move taken back
+   * @throws IllegalStateException if there is no move to take back
+   */
+  public int undo()
+      throws IllegalStateException {
+    if (!this.canUndo()) {
+      throw new IllegalStateException("no move to undo");
+    }
+    int entry = this.entries[this.ply - 1];
+    int positionPly = this.position.getPly();
+    if (positionPly > 0 && this.furthestPositionPly - (positionPly - 1) <= MAX_UNMAKE_DEPTH) {
+      this.position.unmake(moveOf(entry));
+      this.ply--;
+      if (!this.seesDrawHistory()) {
+        // the position was reloaded from a checkpoint after the plies the draw rules look at
+        this.jumpTo(this.ply);
+      }
+    } else {
+      // the position was reloaded by a jump and holds no undo information this far back, or its
+      // repetition history has been overwritten by the plies since
+      this.jumpTo(this.ply - 1);
+    }
+    return entry;
+  }
+
+  /**
+   * Replays the move after the current ply.
+   *
+   * @return the entry of the move replayed
+   * @throws IllegalStateException if there is no move to replay
+   */
+  public int redo()
+      throws IllegalStateException {
+    int entry = this.peekRedo();
+    this.position.make(moveOf(entry));
+    this.ply++;
+    this.reached();
+    return entry;
+  }
+
+  /**
+   * The entry of the move {@link #redo()} would replay.
+   *
+   * @throws IllegalStateException if there is no move to replay
+   */
+  public int peekRedo()
+      throws IllegalStateException {
+    if (!this.canRedo()) {
+      throw new IllegalStateException("no move to redo");
+    }
+    return this.entries[this.ply];
+  }
+
+  /**
+   * Moves the position to any recorded ply.
+   *
+   * @param target the ply to go to, from 0 for the start to {@link #size()}
+   * @throws IllegalArgumentException if the ply has not been recorded
+   */
+  public void jumpTo(int target)
+      throws IllegalArgumentException {
+    Utils.checkIntBetween(target, 0, this.size);
+    int checkpoint = Math.max(0, target - RepetitionHistory.FIFTY_MOVE_PLIES)
+        / CHECKPOINT_INTERVAL;
+    this.position.load(this.checkpoints.get(checkpoint));
+    for (int i = checkpoint * CHECKPOINT_INTERVAL; i < target; i++) {
+      this.position.make(moveOf(this.entries[i]));
+    }
+    this.ply = target;
+    this.furthestPositionPly = this.position.getPly();
+  }
+
+  /**
+   * Whether the position knows every earlier ply the draw rules look at: all of them since the
+   * last capture or pawn move, up to {@link RepetitionHistory#FIFTY_MOVE_PLIES}.
+   */
+  private boolean seesDrawHistory() {
+    int seen = this.position.getPly();
+    return seen == this.ply || seen >= Math.min(this.position.getHalfmoveClock(),
+        RepetitionHistory.FIFTY_MOVE_PLIES);
+  }
+
+  private void reached() {
+    this.furthestPositionPly = Math.max(this.furthestPositionPly, this.position.getPly());
+  }
+
+  /**
+   * The current ply: the number of moves made from the start to reach the position.
+   */
+  public int getPly() {
+    return this.ply;
+  }
+
+  /**
+   * The number of recorded moves, including any that could be redone.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * The entry of a recorded move.
+   *
+   * @param index the ply the move was made from
+   * @throws IllegalArgumentException if the move has not been recorded
+   */
+  public int getEntry(int index)
+      throws IllegalArgumentException {
+    return this.entries[Utils.checkIntBetween(index, 0, this.size - 1)];
+  }
+
+  /**
+   * The moves from the start to the current ply in long algebraic notation.
+   */
+  public List<String> getMoveList() {
+    List<String> moves = new ArrayList<>(this.ply);
+    for (int i = 0; i < this.ply; i++) {
+      moves.add(this.position.moveToString(moveOf(this.entries[i])));
+    }
+    return moves;
+  }
+
+  @Override
+  public String toString() {
+    return String.join(" ", this.getMoveList());
+  }
+}
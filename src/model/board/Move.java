@@ -0,0 +1,133 @@
+package model.board;
+
+import model.Utils;
+import model.bitboard.Bitboards;
+
+/**
+ * <p>Static helpers for moves packed into the low 16 bits of an {@code int}:</p>
+ * <ul>
+ *   <li>
+ *     bits 0-5: the square moved from
+ *   </li>
+ *   <li>
+ *     bits 6-11: the square moved to
+ *   </li>
+ *   <li>
+ *     bits 12-15: one of the {@code FLAG_} constants, describing captures, castling, double pawn
+ *     pushes and promotions
+ *   </li>
+ * </ul>
+ * <p>Packing moves into primitives lets move lists live in preallocated {@code int[]}s rather than
+ * as objects. {@link #NONE} is never a legal move.</p>
+ */
+public final class Move {
+
+  public static final int NONE = 0;
+
+  public static final int FLAG_QUIET = 0;
+  public static final int FLAG_DOUBLE_PUSH = 1;
+  public static final int FLAG_KING_CASTLE = 2;
+  public static final int FLAG_QUEEN_CASTLE = 3;
+  public static final int FLAG_CAPTURE = 4;
+  public static final int FLAG_EN_PASSANT = 5;
+  // promotions are 8 + (piece type - KNIGHT), with 4 added for capturing promotions
+  public static final int FLAG_PROMOTION = 8;
+  public static final int FLAG_PROMOTION_CAPTURE = 12;
+
+  private Move() {
+  }
+
+  public static int of(int from, int to, int flag) {
+    return from | to << 6 | flag << 12;
+  }
+
+  /**
+   * Creates a (possibly capturing) promotion.
+   *
+   * @param promotionType the piece type promoted to, from {@link Position#KNIGHT} to
+   *                      {@link Position#QUEEN}
+   */
+  public static int promotion(int from, int to, int promotionType, boolean capture) {
+    return of(from, to, (capture ? FLAG_PROMOTION_CAPTURE : FLAG_PROMOTION)
+        + promotionType - Position.KNIGHT);
+  }
+
+  public static int from(int move) {
+    return move & 63;
+  }
+
+  public static int to(int move) {
+    return (move >>> 6) & 63;
+  }
+
+  public static int flag(int move) {
+    return (move >>> 12) & 15;
+  }
+
+  public static boolean isCapture(int move) {
+    return (flag(move) & FLAG_CAPTURE) != 0;
+  }
+
+  public static boolean isPromotion(int move) {
+    return (flag(move) & FLAG_PROMOTION) != 0;
+  }
+
+  public static boolean isCastle(int move) {
+    return flag(move) == FLAG_KING_CASTLE || flag(move) == FLAG_QUEEN_CASTLE;
+  }
+
+  /**
+   * The piece type a promotion promotes to.
+   *
+   * @throws IllegalArgumentException if the move is not a promotion
+   */
+  public static int promotionType(int move)
+      throws IllegalArgumentException {
+    if (!isPromotion(move)) {
+      throw new IllegalArgumentException(toString(move) + " is not a promotion");
+    }
+    return Position.KNIGHT + (flag(move) & 3);
+  }
+
+  /**
+   * Whether the move captures or promotes, i.e. changes the material on the board.
+   */
+  public static boolean isTactical(int move) {
+    return flag(move) >= FLAG_CAPTURE;
+  }
+
+  /**
+   * Renders the move in coordinate notation, e.g. {@code e2e4} or {@code e7e8q}.
+   */
+  public static String toString(int move) {
+    String rendered = squareName(from(move)) + squareName(to(move));
+    if (isPromotion(move)) {
+      rendered += "nbrq".charAt(promotionType(move) - Position.KNIGHT);
+    }
+    return rendered;
+  }
+
+  /**
+   * The algebraic name of a square, e.g. {@code e4}. Row 0 is the eighth rank.
+   */
+  public static String squareName(int square) {
+    return "" + (char) ('a' + Bitboards.colOf(square))
+        + (char) ('8' - Bitboards.rowOf(square));
+  }
+
+  /**
+   * Parses an algebraic square name such as {@code e4}.
+   *
+   * @throws IllegalArgumentException if the name is not a square on the board
+   */
+  public static int parseSquare(String name)
+      throws IllegalArgumentException {
+    Utils.checkNotNull(name, "cannot parse a null square");
+    if (name.length() != 2) {
+      throw new IllegalArgumentException("not a square: " + name);
+    }
+    int col = Utils.checkIntBetween(name.charAt(0) - 'a', 0, Bitboards.BOARD_WIDTH - 1);
+    int row = Utils.checkIntBetween('8' - name.charAt(1), 0, Bitboards.BOARD_WIDTH - 1);
+    return Bitboards.squareOf(row, col);
+  }
+}
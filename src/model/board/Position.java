@@ -0,0 +1,421 @@
+package model.board;
+
+import java.util.Arrays;
+import model.Utils;
+import model.bitboard.Bitboards;
+import model.metrics.ChessMetrics;
+import model.player.EChessPlayer;
+import model.posn.BoardGeometry;
+
+/**
+ * <p>A mutable chess position on the standard board backed by 64-bit bitboards, used as the fast
+ * core underneath {@link model.IChessModel} and by the engine. The rules themselves, including
+ * FEN, making and unmaking moves and the draw rules, are shared with {@link WidePosition} through
+ * {@link APosition}.</p>
+ * <p>Pieces are encoded as {@code int}s, {@code colour * 6 + type}, using the colour and type
+ * constants of {@link APosition}, with {@link #NO_PIECE} for an empty square. Moves are packed
+ * {@link Move} codes. {@link #make(int)} and {@link #unmake(int)} update the position and its
+ * Zobrist key incrementally and keep their undo information in preallocated arrays, so searching
+ * does not allocate.</p>
+ * <p>Squares follow {@link Bitboards}: row 0 is black's back rank and white pawns move towards
+ * it.</p>
+ */
+public final class Position extends APosition {
+
+  public static final int NUM_PIECE_TYPES = 6;
+  public static final int NUM_PIECES = 2 * NUM_PIECE_TYPES;
+
+  public static final String START_FEN =
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+  /**
+   * The largest number of pseudo-legal moves any position can have, for sizing move buffers.
+   */
+  public static final int MAX_MOVES = 256;
+
+  private static final String PIECE_CHARS = "PNBRQKpnbrqk";
+  // the squares the kings castle from, e1 and e8
+  private static final int WHITE_KING_HOME = Bitboards.squareOf(7, 4);
+  private static final int BLACK_KING_HOME = Bitboards.squareOf(0, 4);
+
+  private final long[] pieceBitboards;
+  private final long[] colourBitboards;
+  private final int[] castleBuffer;
+
+  private Position() {
+    super(BoardGeometry.STANDARD, PIECE_CHARS, MAX_MOVES);
+    this.pieceBitboards = new long[NUM_PIECES];
+    this.colourBitboards = new long[2];
+    this.castleBuffer = new int[2];
+  }
+
+  /**
+   * Creates the standard starting position.
+   */
+  public static Position startingPosition() {
+    return fromFen(START_FEN);
+  }
+
+  /**
+   * Parses a position from Forsyth-Edwards Notation. The move counters may be omitted.
+   *
+   * @param fen the position in FEN
+   * @return the parsed position
+   * @throws IllegalArgumentException if the FEN is null or malformed
+   */
+  public static Position fromFen(String fen)
+      throws IllegalArgumentException {
+    Position position = new Position();
+    position.load(fen);
+    return position;
+  }
+
+
+  /**
+   * Makes this position a copy of another, reusing this position's buffers. The repetition history
+   * of the copy starts afresh at the copied position.
+   *
+   * @param other the position to copy
+   */
+  public void copyFrom(Position other) {
+    Utils.checkNotNull(other, "cannot copy a null position");
+    System.arraycopy(other.pieceBitboards, 0, this.pieceBitboards, 0, NUM_PIECES);
+    System.arraycopy(other.colourBitboards, 0, this.colourBitboards, 0, 2);
+    this.copyStateFrom(other);
+  }
+
+  public static int colourOf(int piece) {
+    return piece / NUM_PIECE_TYPES;
+  }
+
+  public static int typeOf(int piece) {
+    return piece % NUM_PIECE_TYPES;
+  }
+
+  public static int pieceOf(int colour, int type) {
+    return colour * NUM_PIECE_TYPES + type;
+  }
+
+  public static int colourOf(EChessPlayer player) {
+    return player == EChessPlayer.WHITE ? WHITE : BLACK;
+  }
+
+  public long getPieces(int colour, int type) {
+    return this.pieceBitboards[pieceOf(colour, type)];
+  }
+
+  public long getPieces(int colour) {
+    return this.colourBitboards[colour];
+  }
+
+  public long getOccupied() {
+    return this.colourBitboards[WHITE] | this.colourBitboards[BLACK];
+  }
+
+  @Override
+  public int getKingSquare(int colour) {
+    return Bitboards.lowestSquare(this.pieceBitboards[pieceOf(colour, KING)]);
+  }
+
+  /**
+   * Every piece of either colour that attacks {@code square}, given the occupancy
+   * {@code occupied}. Passing an occupancy with pieces removed reveals attackers behind them.
+   */
+  public long getAttackersTo(int square, long occupied) {
+    long bishopsQueens = this.pieceBitboards[pieceOf(WHITE, BISHOP)]
+        | this.pieceBitboards[pieceOf(BLACK, BISHOP)]
+        | this.pieceBitboards[pieceOf(WHITE, QUEEN)]
+        | this.pieceBitboards[pieceOf(BLACK, QUEEN)];
+    long rooksQueens = this.pieceBitboards[pieceOf(WHITE, ROOK)]
+        | this.pieceBitboards[pieceOf(BLACK, ROOK)]
+        | this.pieceBitboards[pieceOf(WHITE, QUEEN)]
+        | this.pieceBitboards[pieceOf(BLACK, QUEEN)];
+
+    return (Bitboards.pawnAttacks(false, square) & this.pieceBitboards[pieceOf(WHITE, PAWN)])
+        | (Bitboards.pawnAttacks(true, square) & this.pieceBitboards[pieceOf(BLACK, PAWN)])
+        | (Bitboards.knightAttacks(square)
+        & (this.pieceBitboards[pieceOf(WHITE, KNIGHT)] | this.pieceBitboards[pieceOf(BLACK, KNIGHT)]))
+        | (Bitboards.kingAttacks(square)
+        & (this.pieceBitboards[pieceOf(WHITE, KING)] | this.pieceBitboards[pieceOf(BLACK, KING)]))
+        | (Bitboards.bishopAttacks(square, occupied) & bishopsQueens)
+        | (Bitboards.rookAttacks(square, occupied) & rooksQueens);
+  }
+
+  /**
+   * Whether any piece of colour {@code byColour} attacks {@code square}.
+   */
+  @Override
+  public boolean isAttacked(int square, int byColour) {
+    long them = this.colourBitboards[byColour];
+    long occupied = this.getOccupied();
+    return (Bitboards.pawnAttacks(byColour == BLACK, square)
+        & this.pieceBitboards[pieceOf(byColour, PAWN)]) != 0
+        || (Bitboards.knightAttacks(square) & this.pieceBitboards[pieceOf(byColour, KNIGHT)]) != 0
+        || (Bitboards.kingAttacks(square) & this.pieceBitboards[pieceOf(byColour, KING)]) != 0
+        || (Bitboards.bishopAttacks(square, occupied) & them
+        & (this.pieceBitboards[pieceOf(byColour, BISHOP)]
+        | this.pieceBitboards[pieceOf(byColour, QUEEN)])) != 0
+        || (Bitboards.rookAttacks(square, occupied) & them
+        & (this.pieceBitboards[pieceOf(byColour, ROOK)]
+        | this.pieceBitboards[pieceOf(byColour, QUEEN)])) != 0;
+  }
+
+  /**
+   * Writes every pseudo-legal capture and promotion for the side to move into {@code moves},
+   * starting at {@code count}.
+   *
+   * @return the new number of moves in the buffer
+   */
+  public int generateCaptures(int[] moves, int count) {
+    int start = count;
+    int us = this.sideToMove;
+    long them = this.colourBitboards[us ^ 1];
+    long occupied = this.getOccupied();
+
+    // pawns: captures, en passant and every promotion
+    boolean white = us == WHITE;
+    int forward = white ? -Bitboards.BOARD_WIDTH : Bitboards.BOARD_WIDTH;
+    int promotionRow = white ? 0 : Bitboards.BOARD_WIDTH - 1;
+    for (long pawns = this.pieceBitboards[pieceOf(us, PAWN)]; pawns != 0; pawns &= pawns - 1) {
+      int from = Bitboards.lowestSquare(pawns);
+      int push = from + forward;
+      if (Bitboards.rowOf(push) == promotionRow && this.board[push] == NO_PIECE) {
+        count = addPromotions(moves, count, from, push, false);
+      }
+      for (long targets = Bitboards.pawnAttacks(white, from) & them; targets != 0;
+          targets &= targets - 1) {
+        int to = Bitboards.lowestSquare(targets);
+        if (Bitboards.rowOf(to) == promotionRow) {
+          count = addPromotions(moves, count, from, to, true);
+        } else {
+          moves[count++] = Move.of(from, to, Move.FLAG_CAPTURE);
+        }
+      }
+      if (this.enPassantSquare != NO_SQUARE
+          && Bitboards.contains(Bitboards.pawnAttacks(white, from), this.enPassantSquare)) {
+        moves[count++] = Move.of(from, this.enPassantSquare, Move.FLAG_EN_PASSANT);
+      }
+    }
+
+    for (int type = KNIGHT; type <= KING; type++) {
+      for (long pieces = this.pieceBitboards[pieceOf(us, type)]; pieces != 0;
+          pieces &= pieces - 1) {
+        int from = Bitboards.lowestSquare(pieces);
+        for (long targets = attacks(type, from, occupied) & them; targets != 0;
+            targets &= targets - 1) {
+          moves[count++] = Move.of(from, Bitboards.lowestSquare(targets), Move.FLAG_CAPTURE);
+        }
+      }
+    }
+
+    ChessMetrics.recordMovesGenerated(count - start);
+    return count;
+  }
+
+  /**
+   * Writes every pseudo-legal move that neither captures nor promotes for the side to move into
+   * {@code moves}, starting at {@code count}.
+   *
+   * @return the new number of moves in the buffer
+   */
+  public int generateQuiets(int[] moves, int count) {
+    int start = count;
+    int us = this.sideToMove;
+    long occupied = this.getOccupied();
+    long empty = ~occupied;
+
+    boolean white = us == WHITE;
+    int forward = white ? -Bitboards.BOARD_WIDTH : Bitboards.BOARD_WIDTH;
+    int promotionRow = white ? 0 : Bitboards.BOARD_WIDTH - 1;
+    int startRow = white ? Bitboards.BOARD_WIDTH - 2 : 1;
+    for (long pawns = this.pieceBitboards[pieceOf(us, PAWN)]; pawns != 0; pawns &= pawns - 1) {
+      int from = Bitboards.lowestSquare(pawns);
+      int push = from + forward;
+      if (this.board[push] != NO_PIECE || Bitboards.rowOf(push) == promotionRow) {
+        continue;
+      }
+      moves[count++] = Move.of(from, push, Move.FLAG_QUIET);
+      if (Bitboards.rowOf(from) == startRow && this.board[push + forward] == NO_PIECE) {
+        moves[count++] = Move.of(from, push + forward, Move.FLAG_DOUBLE_PUSH);
+      }
+    }
+
+    for (int type = KNIGHT; type <= KING; type++) {
+      for (long pieces = this.pieceBitboards[pieceOf(us, type)]; pieces != 0;
+          pieces &= pieces - 1) {
+        int from = Bitboards.lowestSquare(pieces);
+        for (long targets = attacks(type, from, occupied) & empty; targets != 0;
+            targets &= targets - 1) {
+          moves[count++] = Move.of(from, Bitboards.lowestSquare(targets), Move.FLAG_QUIET);
+        }
+      }
+    }
+
+    count = this.addCastles(moves, count);
+
+    ChessMetrics.recordMovesGenerated(count - start);
+    return count;
+  }
+
+  /**
+   * Writes every pseudo-legal move for the side to move into {@code moves}.
+   *
+   * @return the number of moves written
+   */
+  @Override
+  public int generatePseudoLegalMoves(int[] moves) {
+    return this.generateQuiets(moves, this.generateCaptures(moves, 0));
+  }
+
+  /**
+   * Whether a move, typically remembered from another position (a hash or killer move), is
+   * pseudo-legal in this one, i.e. would have been produced by this position's move generator.
+   *
+   * @param move any packed move
+   * @return whether the move can be passed to {@link #make(int)}
+   */
+  public boolean isPseudoLegal(int move) {
+    if (move == Move.NONE) {
+      return false;
+    }
+    int from = Move.from(move);
+    int to = Move.to(move);
+    int flag = Move.flag(move);
+    int us = this.sideToMove;
+    int moving = this.board[from];
+    if (moving == NO_PIECE || colourOf(moving) != us) {
+      return false;
+    }
+
+    int target = this.board[to];
+    if (flag == Move.FLAG_EN_PASSANT) {
+      return typeOf(moving) == PAWN && to == this.enPassantSquare
+          && Bitboards.contains(Bitboards.pawnAttacks(us == WHITE, from), to);
+    }
+    boolean capture = Move.isCapture(move);
+    if (capture != (target != NO_PIECE)
+        || (capture && (colourOf(target) == us || typeOf(target) == KING))) {
+      return false;
+    }
+
+    if (Move.isCastle(move)) {
+      int castles = typeOf(moving) == KING ? this.addCastles(this.castleBuffer, 0) : 0;
+      return (castles > 0 && this.castleBuffer[0] == move)
+          || (castles > 1 && this.castleBuffer[1] == move);
+    }
+
+    if (typeOf(moving) != PAWN) {
+      return (flag == Move.FLAG_QUIET || flag == Move.FLAG_CAPTURE)
+          && Bitboards.contains(attacks(typeOf(moving), from, this.getOccupied()), to);
+    }
+
+    boolean white = us == WHITE;
+    int forward = white ? -Bitboards.BOARD_WIDTH : Bitboards.BOARD_WIDTH;
+    int promotionRow = white ? 0 : Bitboards.BOARD_WIDTH - 1;
+    if (Move.isPromotion(move) != (Bitboards.rowOf(to) == promotionRow)) {
+      return false;
+    }
+    if (capture) {
+      return Bitboards.contains(Bitboards.pawnAttacks(white, from), to);
+    } else if (flag == Move.FLAG_DOUBLE_PUSH) {
+      return Bitboards.rowOf(from) == (white ? Bitboards.BOARD_WIDTH - 2 : 1)
+          && to == from + 2 * forward && this.board[from + forward] == NO_PIECE;
+    }
+    return to == from + forward && (flag == Move.FLAG_QUIET || Move.isPromotion(move));
+  }
+
+  /**
+   * The squares attacked by a non-pawn piece of the given type.
+   */
+  public static long attacks(int type, int square, long occupied) {
+    switch (type) {
+      case KNIGHT:
+        return Bitboards.knightAttacks(square);
+      case BISHOP:
+        return Bitboards.bishopAttacks(square, occupied);
+      case ROOK:
+        return Bitboards.rookAttacks(square, occupied);
+      case QUEEN:
+        return Bitboards.queenAttacks(square, occupied);
+      case KING:
+        return Bitboards.kingAttacks(square);
+      default:
+        throw new IllegalArgumentException("no piece-independent attacks for type " + type);
+    }
+  }
+
+  private int addCastles(int[] moves, int count) {
+    int us = this.sideToMove;
+    int king = us == WHITE ? WHITE_KING_HOME : BLACK_KING_HOME;
+    int kingSide = us == WHITE ? CASTLE_WHITE_KING : CASTLE_BLACK_KING;
+    int queenSide = us == WHITE ? CASTLE_WHITE_QUEEN : CASTLE_BLACK_QUEEN;
+    if ((this.castlingRights & (kingSide | queenSide)) == 0 || this.isAttacked(king, us ^ 1)) {
+      return count;
+    }
+
+    if ((this.castlingRights & kingSide) != 0
+        && this.board[king + 1] == NO_PIECE && this.board[king + 2] == NO_PIECE
+        && !this.isAttacked(king + 1, us ^ 1) && !this.isAttacked(king + 2, us ^ 1)) {
+      moves[count++] = Move.of(king, king + 2, Move.FLAG_KING_CASTLE);
+    }
+    if ((this.castlingRights & queenSide) != 0
+        && this.board[king - 1] == NO_PIECE && this.board[king - 2] == NO_PIECE
+        && this.board[king - 3] == NO_PIECE
+        && !this.isAttacked(king - 1, us ^ 1) && !this.isAttacked(king - 2, us ^ 1)) {
+      moves[count++] = Move.of(king, king - 2, Move.FLAG_QUEEN_CASTLE);
+    }
+    return count;
+  }
+
+  private static int addPromotions(int[] moves, int count, int from, int to, boolean capture) {
+    for (int type = QUEEN; type >= KNIGHT; type--) {
+      moves[count++] = Move.promotion(from, to, type, capture);
+    }
+    return count;
+  }
+
+
+  @Override
+  public int moveFrom(int move) {
+    return Move.from(move);
+  }
+
+  @Override
+  public int moveTo(int move) {
+    return Move.to(move);
+  }
+
+  @Override
+  public int moveFlag(int move) {
+    return Move.flag(move);
+  }
+
+  @Override
+  public int movePromotionType(int move)
+      throws IllegalArgumentException {
+    return Move.promotionType(move);
+  }
+
+  @Override
+  public String moveToString(int move) {
+    return Move.toString(move);
+  }
+
+  @Override
+  void clearBitboards() {
+    Arrays.fill(this.pieceBitboards, 0);
+    Arrays.fill(this.colourBitboards, 0);
+  }
+
+  @Override
+  void addToBitboards(int piece, int square) {
+    this.pieceBitboards[piece] |= Bitboards.bit(square);
+    this.colourBitboards[colourOf(piece)] |= Bitboards.bit(square);
+  }
+
+  @Override
+  void removeFromBitboards(int piece, int square) {
+    this.pieceBitboards[piece] &= ~Bitboards.bit(square);
+    this.colourBitboards[colourOf(piece)] &= ~Bitboards.bit(square);
+  }
+}
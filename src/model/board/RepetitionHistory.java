@@ -0,0 +1,122 @@
+package model.board;
+
+import model.Utils;
+
+/**
+ * <p>Tracks the position keys of a game for repetition detection, along with the fifty-move
+ * counter (the number of plies since the last capture or pawn move).</p>
+ * <p>Keys are kept in a preallocated ring buffer, so pushing and popping never allocate. A position
+ * can only repeat one reached since the last irreversible move with the same side to move, so a
+ * repetition check only looks at every other key back to that move rather than comparing whole
+ * boards. Since a game is drawn by the fifty-move rule after 100 such plies, the ring never needs
+ * to hold more than the last {@link #CAPACITY} keys.</p>
+ */
+public final class RepetitionHistory {
+
+  /**
+   * The number of plies without a capture or pawn move after which the game is drawn.
+   */
+  public static final int FIFTY_MOVE_PLIES = 100;
+
+  /**
+   * The number of most recent keys retained. Popping back more than this many plies past the
+   * furthest point pushed to leaves stale keys in the scanned window.
+   */
+  public static final int CAPACITY = 256;
+
+  private static final int MASK = CAPACITY - 1;
+
+  private final long[] keys;
+  private final int[] clocks;
+  // the number of keys pushed since reset, including the initial position
+  private int size;
+
+  public RepetitionHistory() {
+    this.keys = new long[CAPACITY];
+    this.clocks = new int[CAPACITY];
+  }
+
+  /**
+   * Forgets everything and starts tracking from a single position.
+   *
+   * @param key           the key of the starting position
+   * @param halfmoveClock the number of plies since the last capture or pawn move
+   * @throws IllegalArgumentException if the clock is negative
+   */
+  public void reset(long key, int halfmoveClock)
+      throws IllegalArgumentException {
+    Utils.checkNonNegativeInt(halfmoveClock);
+    this.size = 1;
+    this.keys[0] = key;
+    this.clocks[0] = halfmoveClock;
+  }
+
+  /**
+   * Records the position reached by a move.
+   *
+   * @param key          the key of the new position
+   * @param irreversible whether the move was a capture or pawn move, resetting the fifty-move
+   *                     counter
+   */
+  public void push(long key, boolean irreversible) {
+    int clock = irreversible ? 0 : this.getHalfmoveClock() + 1;
+    this.keys[this.size & MASK] = key;
+    this.clocks[this.size & MASK] = clock;
+    this.size++;
+  }
+
+  /**
+   * Forgets the most recently pushed position, when its move is taken back.
+   *
+   * @throws IllegalStateException if only the starting position remains
+   */
+  public void pop()
+      throws IllegalStateException {
+    if (this.size <= 1) {
+      throw new IllegalStateException("cannot pop the starting position of a history");
+    }
+    this.size--;
+  }
+
+  public long getCurrentKey() {
+    return this.keys[(this.size - 1) & MASK];
+  }
+
+  public int getHalfmoveClock() {
+    return this.clocks[(this.size - 1) & MASK];
+  }
+
+  /**
+   * Counts how many earlier positions, since the last irreversible move, are the same as the
+   * current one.
+   *
+   * @return 0 if the current position is new, 1 if it has occurred once before, and so on
+   */
+  public int countRepetitions() {
+    int current = this.size - 1;
+    long key = this.keys[current & MASK];
+    int window = Math.min(Math.min(this.getHalfmoveClock(), current), CAPACITY - 1);
+
+    int repetitions = 0;
+    for (int back = 2; back <= window; back += 2) {
+      if (this.keys[(current - back) & MASK] == key) {
+        repetitions++;
+      }
+    }
+    return repetitions;
+  }
+
+  /**
+   * Whether the current position has occurred three times, drawing the game.
+   */
+  public boolean isThreefoldRepetition() {
+    return this.countRepetitions() >= 2;
+  }
+
+  /**
+   * Whether 100 plies have passed without a capture or pawn move, drawing the game.
+   */
+  public boolean isFiftyMoveDraw() {
+    return this.getHalfmoveClock() >= FIFTY_MOVE_PLIES;
+  }
+}
@@ -0,0 +1,122 @@
+package model.board;
+
+import model.Utils;
+import model.posn.BoardGeometry;
+
+/**
+ * <p>Static helpers for moves on a {@link WidePosition}, packed into a 32-bit {@code int}. Boards
+ * of up to {@link BoardGeometry#MAX_SQUARES} squares need seven bits per square, and pawns may
+ * promote to archbishops and chancellors, so these do not fit the 16 bits of a {@link Move}:</p>
+ * <ul>
+ *   <li>bits 0-6: the square moved from</li>
+ *   <li>bits 7-13: the square moved to</li>
+ *   <li>bits 14-17: a flag, using the same {@code Move.FLAG_} values as {@link Move}</li>
+ *   <li>bits 18-20: the piece type promoted to, for promotions</li>
+ * </ul>
+ * <p>{@link #NONE} is never a real move.</p>
+ */
+public final class WideMove {
+
+  public static final int NONE = 0;
+
+  private static final int SQUARE_BITS = 7;
+  private static final int SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+  private static final int FLAG_SHIFT = 2 * SQUARE_BITS;
+  private static final int PROMOTION_SHIFT = FLAG_SHIFT + 4;
+
+  private WideMove() {
+  }
+
+  public static int of(int from, int to, int flag) {
+    return from | to << SQUARE_BITS | flag << FLAG_SHIFT;
+  }
+
+  public static int promotion(int from, int to, int promotionType, boolean capture) {
+    return of(from, to, capture ? Move.FLAG_PROMOTION_CAPTURE : Move.FLAG_PROMOTION)
+        | promotionType << PROMOTION_SHIFT;
+  }
+
+  public static int from(int move) {
+    return move & SQUARE_MASK;
+  }
+
+  public static int to(int move) {
+    return (move >>> SQUARE_BITS) & SQUARE_MASK;
+  }
+
+  public static int flag(int move) {
+    return (move >>> FLAG_SHIFT) & 15;
+  }
+
+  public static boolean isCapture(int move) {
+    int flag = flag(move);
+    return flag == Move.FLAG_CAPTURE || flag == Move.FLAG_EN_PASSANT
+        || flag >= Move.FLAG_PROMOTION_CAPTURE;
+  }
+
+  public static boolean isPromotion(int move) {
+    return flag(move) >= Move.FLAG_PROMOTION;
+  }
+
+  public static boolean isCastle(int move) {
+    int flag = flag(move);
+    return flag == Move.FLAG_KING_CASTLE || flag == Move.FLAG_QUEEN_CASTLE;
+  }
+
+  /**
+   * The piece type a promotion promotes to.
+   *
+   * @throws IllegalArgumentException if the move is not a promotion
+   */
+  public static int promotionType(int move)
+      throws IllegalArgumentException {
+    if (!isPromotion(move)) {
+      throw new IllegalArgumentException("not a promotion: " + move);
+    }
+    return move >>> PROMOTION_SHIFT;
+  }
+
+  /**
+   * Renders a move in long algebraic notation on the given board, e.g. {@code i2i4} or
+   * {@code b9b10c}.
+   */
+  public static String toString(int move, BoardGeometry geometry) {
+    String name = squareName(from(move), geometry) + squareName(to(move), geometry);
+    return isPromotion(move)
+        ? name + WidePosition.PIECE_CHARS.charAt(WidePosition.pieceOf(WidePosition.BLACK,
+        promotionType(move)))
+        : name;
+  }
+
+  /**
+   * The algebraic name of a square on the given board, e.g. {@code j1} or {@code a10}.
+   */
+  public static String squareName(int square, BoardGeometry geometry) {
+    return "" + (char) ('a' + geometry.colOf(square))
+        + (geometry.getRows() - geometry.rowOf(square));
+  }
+
+  /**
+   * Parses an algebraic square name on the given board.
+   *
+   * @throws IllegalArgumentException if the name is null or not a square on the board
+   */
+  public static int parseSquare(String name, BoardGeometry geometry)
+      throws IllegalArgumentException {
+    Utils.checkNotNull(name, "cannot parse a null square name");
+    Utils.checkNotNull(geometry, "cannot parse a square on a null BoardGeometry");
+    int rank;
+    try {
+      rank = name.length() < 2 ? -1 : Integer.parseInt(name.substring(1));
+    } catch (NumberFormatException e) {
+      rank = -1;
+    }
+    int row = geometry.getRows() - rank;
+    int col = name.isEmpty() ? -1 : name.charAt(0) - 'a';
+    if (rank < 1 || !geometry.contains(row, col)) {
+      throw new IllegalArgumentException("bad square name for a " + geometry + " board: "
+          + name);
+    }
+    return geometry.squareOf(row, col);
+  }
+}
@@ -0,0 +1,385 @@
+package model.board;
+
+import java.util.Arrays;
+import model.Utils;
+import model.bitboard.WideBitboards;
+import model.metrics.ChessMetrics;
+import model.posn.BoardGeometry;
+
+/**
+ * <p>A mutable chess position on any {@link BoardGeometry}, backed by the {@code long[]} sets of
+ * {@link WideBitboards}. It plays the rules of {@link APosition}, which it shares with
+ * {@link Position}, the fast path for the standard 8x8 board, generalised to wider and taller
+ * boards:</p>
+ * <ul>
+ *   <li>
+ *     Pawns start on the second row from each side, may advance two squares from there, and
+ *     promote on the far row
+ *   </li>
+ *   <li>
+ *     The archbishop (bishop and knight) and chancellor (rook and knight) of Capablanca chess are
+ *     available, written {@code A} and {@code C} in FEN, and pawns may promote to them on any
+ *     board other than 8x8
+ *   </li>
+ * </ul>
+ * <p>Pieces are encoded as {@code colour * 8 + type}. Moves are packed {@link WideMove} codes.
+ * Rows of more than nine empty squares are written with multi-digit counts in FEN, e.g.
+ * {@code 10}.</p>
+ */
+public final class WidePosition extends APosition {
+
+  public static final int ARCHBISHOP = 6;
+  public static final int CHANCELLOR = 7;
+
+  public static final int NUM_PIECE_TYPES = 8;
+  public static final int NUM_PIECES = 2 * NUM_PIECE_TYPES;
+
+  /**
+   * The largest number of pseudo-legal moves any position can have, for sizing move buffers.
+   */
+  public static final int MAX_MOVES = 512;
+
+  static final String PIECE_CHARS = "PNBRQKACpnbrqkac";
+
+  private final WideBitboards bitboards;
+  private final long[][] pieceSets;
+  private final long[][] colourSets;
+
+  private WidePosition(BoardGeometry geometry) {
+    super(geometry, PIECE_CHARS, MAX_MOVES);
+    this.bitboards = WideBitboards.of(geometry);
+    this.pieceSets = new long[NUM_PIECES][this.bitboards.getWords()];
+    this.colourSets = new long[2][this.bitboards.getWords()];
+  }
+
+  /**
+   * The starting position of a board in FEN: the standard setup on eight columns and the
+   * Capablanca setup, with archbishops and chancellors, on ten.
+   *
+   * @throws IllegalArgumentException if the geometry is null or has no known setup
+   */
+  public static String startingFen(BoardGeometry geometry)
+      throws IllegalArgumentException {
+    Utils.checkNotNull(geometry, "cannot set up a null BoardGeometry");
+    String backRank;
+    if (geometry.getCols() == 8) {
+      backRank = "rnbqkbnr";
+    } else if (geometry.getCols() == 10) {
+      backRank = "rnabqkbcnr";
+    } else {
+      throw new IllegalArgumentException("no starting position for a " + geometry + " board");
+    }
+    String pawns = backRank.replaceAll(".", "p");
+    StringBuilder fen = new StringBuilder(backRank).append('/').append(pawns);
+    for (int row = 2; row < geometry.getRows() - 2; row++) {
+      fen.append('/').append(geometry.getCols());
+    }
+    return fen.append('/').append(pawns.toUpperCase()).append('/')
+        .append(backRank.toUpperCase()).append(" w KQkq - 0 1").toString();
+  }
+
+  /**
+   * Creates the starting position of a board.
+   *
+   * @throws IllegalArgumentException if the geometry is null or has no known setup
+   */
+  public static WidePosition startingPosition(BoardGeometry geometry)
+      throws IllegalArgumentException {
+    return fromFen(geometry, startingFen(geometry));
+  }
+
+  /**
+   * Parses a position on the given board from Forsyth-Edwards Notation. The move counters may be
+   * omitted.
+   *
+   * @param geometry the board the position is on
+   * @param fen      the position in FEN, with one rank per row of the board
+   * @return the parsed position
+   * @throws IllegalArgumentException if either argument is null or the FEN is malformed
+   */
+  public static WidePosition fromFen(BoardGeometry geometry, String fen)
+      throws IllegalArgumentException {
+    WidePosition position = new WidePosition(geometry);
+    position.load(fen);
+    return position;
+  }
+
+  public static int colourOf(int piece) {
+    return piece / NUM_PIECE_TYPES;
+  }
+
+  public static int typeOf(int piece) {
+    return piece % NUM_PIECE_TYPES;
+  }
+
+  public static int pieceOf(int colour, int type) {
+    return colour * NUM_PIECE_TYPES + type;
+  }
+
+  @Override
+  public int getKingSquare(int colour) {
+    return WideBitboards.lowestSquare(this.pieceSets[pieceOf(colour, KING)]);
+  }
+
+  /**
+   * Whether any piece of colour {@code byColour} attacks {@code square}.
+   */
+  @Override
+  public boolean isAttacked(int square, int byColour) {
+    long[] knightLeapers = this.bitboards.knightAttacks(square);
+    if (WideBitboards.intersects(this.bitboards.pawnAttacks(byColour == BLACK, square),
+        this.pieceSets[pieceOf(byColour, PAWN)])
+        || WideBitboards.intersects(knightLeapers, this.pieceSets[pieceOf(byColour, KNIGHT)])
+        || WideBitboards.intersects(knightLeapers, this.pieceSets[pieceOf(byColour, ARCHBISHOP)])
+        || WideBitboards.intersects(knightLeapers, this.pieceSets[pieceOf(byColour, CHANCELLOR)])
+        || WideBitboards.intersects(this.bitboards.kingAttacks(square),
+        this.pieceSets[pieceOf(byColour, KING)])) {
+      return true;
+    }
+
+    for (int direction = 0; direction < WideBitboards.NUM_DIRECTIONS; direction++) {
+      boolean diagonal = direction >= WideBitboards.FIRST_DIAGONAL;
+      for (int target : this.bitboards.ray(direction, square)) {
+        int piece = this.board[target];
+        if (piece == NO_PIECE) {
+          continue;
+        }
+        if (colourOf(piece) == byColour && slidesAlong(typeOf(piece), diagonal)) {
+          return true;
+        }
+        break;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Writes every pseudo-legal move for the side to move into {@code moves}.
+   *
+   * @return the number of moves written
+   */
+  @Override
+  public int generatePseudoLegalMoves(int[] moves) {
+    int count = 0;
+    int us = this.sideToMove;
+    long[] own = this.colourSets[us];
+    long[] them = this.colourSets[us ^ 1];
+
+    boolean white = us == WHITE;
+    int forward = white ? -this.cols : this.cols;
+    int promotionRow = white ? 0 : this.rows - 1;
+    int startRow = white ? this.rows - 2 : 1;
+    long[] pawns = this.pieceSets[pieceOf(us, PAWN)];
+    for (int word = 0; word < pawns.length; word++) {
+      for (long bits = pawns[word]; bits != 0; bits &= bits - 1) {
+        int from = word * WideBitboards.WORD_BITS + Long.numberOfTrailingZeros(bits);
+        int push = from + forward;
+        if (this.board[push] == NO_PIECE) {
+          if (this.geometry.rowOf(push) == promotionRow) {
+            count = this.addPromotions(moves, count, from, push, false);
+          } else {
+            moves[count++] = WideMove.of(from, push, Move.FLAG_QUIET);
+            if (this.geometry.rowOf(from) == startRow
+                && this.board[push + forward] == NO_PIECE) {
+              moves[count++] = WideMove.of(from, push + forward, Move.FLAG_DOUBLE_PUSH);
+            }
+          }
+        }
+
+        long[] attacks = this.bitboards.pawnAttacks(white, from);
+        for (int targetWord = 0; targetWord < attacks.length; targetWord++) {
+          for (long targets = attacks[targetWord] & them[targetWord]; targets != 0;
+              targets &= targets - 1) {
+            int to = targetWord * WideBitboards.WORD_BITS + Long.numberOfTrailingZeros(targets);
+            if (this.geometry.rowOf(to) == promotionRow) {
+              count = this.addPromotions(moves, count, from, to, true);
+            } else {
+              moves[count++] = WideMove.of(from, to, Move.FLAG_CAPTURE);
+            }
+          }
+        }
+        if (this.enPassantSquare != NO_SQUARE
+            && WideBitboards.contains(attacks, this.enPassantSquare)) {
+          moves[count++] = WideMove.of(from, this.enPassantSquare, Move.FLAG_EN_PASSANT);
+        }
+      }
+    }
+
+    for (int type = KNIGHT; type < NUM_PIECE_TYPES; type++) {
+      long[] pieces = this.pieceSets[pieceOf(us, type)];
+      for (int word = 0; word < pieces.length; word++) {
+        for (long bits = pieces[word]; bits != 0; bits &= bits - 1) {
+          int from = word * WideBitboards.WORD_BITS + Long.numberOfTrailingZeros(bits);
+          if (type == KING) {
+            count = this.addLeaps(moves, count, from, this.bitboards.kingAttacks(from), own);
+            continue;
+          }
+          if (type == KNIGHT || type == ARCHBISHOP || type == CHANCELLOR) {
+            count = this.addLeaps(moves, count, from, this.bitboards.knightAttacks(from), own);
+          }
+          if (type != KNIGHT) {
+            count = this.addSlides(moves, count, from, type);
+          }
+        }
+      }
+    }
+
+    count = this.addCastles(moves, count);
+
+    ChessMetrics.recordMovesGenerated(count);
+    return count;
+  }
+
+  private static boolean slidesAlong(int type, boolean diagonal) {
+    return type == QUEEN
+        || (diagonal ? type == BISHOP || type == ARCHBISHOP : type == ROOK || type == CHANCELLOR);
+  }
+
+  private int addLeaps(int[] moves, int count, int from, long[] attacks, long[] own) {
+    for (int word = 0; word < attacks.length; word++) {
+      for (long targets = attacks[word] & ~own[word]; targets != 0; targets &= targets - 1) {
+        int to = word * WideBitboards.WORD_BITS + Long.numberOfTrailingZeros(targets);
+        moves[count++] = WideMove.of(from, to,
+            this.board[to] == NO_PIECE ? Move.FLAG_QUIET : Move.FLAG_CAPTURE);
+      }
+    }
+    return count;
+  }
+
+  private int addSlides(int[] moves, int count, int from, int type) {
+    int us = this.sideToMove;
+    for (int direction = 0; direction < WideBitboards.NUM_DIRECTIONS; direction++) {
+      if (!slidesAlong(type, direction >= WideBitboards.FIRST_DIAGONAL)) {
+        continue;
+      }
+      for (int to : this.bitboards.ray(direction, from)) {
+        int target = this.board[to];
+        if (target == NO_PIECE) {
+          moves[count++] = WideMove.of(from, to, Move.FLAG_QUIET);
+          continue;
+        }
+        if (colourOf(target) != us) {
+          moves[count++] = WideMove.of(from, to, Move.FLAG_CAPTURE);
+        }
+        break;
+      }
+    }
+    return count;
+  }
+
+  private int addCastles(int[] moves, int count) {
+    int us = this.sideToMove;
+    int kingSide = us == WHITE ? CASTLE_WHITE_KING : CASTLE_BLACK_KING;
+    int queenSide = us == WHITE ? CASTLE_WHITE_QUEEN : CASTLE_BLACK_QUEEN;
+    if ((this.castlingRights & (kingSide | queenSide)) == 0) {
+      return count;
+    }
+    int king = this.getKingSquare(us);
+    if (this.isAttacked(king, us ^ 1)) {
+      return count;
+    }
+
+    int backRow = this.geometry.rowOf(king);
+    if ((this.castlingRights & kingSide) != 0) {
+      int to = this.geometry.squareOf(backRow, this.cols - 2);
+      if (this.canCastle(king, to, true)) {
+        moves[count++] = WideMove.of(king, to, Move.FLAG_KING_CASTLE);
+      }
+    }
+    if ((this.castlingRights & queenSide) != 0) {
+      int to = this.geometry.squareOf(backRow, 2);
+      if (this.canCastle(king, to, false)) {
+        moves[count++] = WideMove.of(king, to, Move.FLAG_QUEEN_CASTLE);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Whether every square the king and rook cross is empty and the king crosses no attacked
+   * square. The king's own square is checked by the caller.
+   */
+  private boolean canCastle(int king, int to, boolean kingSide) {
+    int us = this.sideToMove;
+    int rookFrom = this.castleRookFrom(to, kingSide);
+    int rookTo = this.castleRookTo(to, kingSide);
+    if (this.board[rookFrom] != pieceOf(us, ROOK)) {
+      return false;
+    }
+
+    int low = Math.min(Math.min(king, to), Math.min(rookFrom, rookTo));
+    int high = Math.max(Math.max(king, to), Math.max(rookFrom, rookTo));
+    for (int sq = low; sq <= high; sq++) {
+      if (sq != king && sq != rookFrom && this.board[sq] != NO_PIECE) {
+        return false;
+      }
+    }
+    int step = to > king ? 1 : -1;
+    for (int sq = king + step; sq != to + step; sq += step) {
+      if (this.isAttacked(sq, us ^ 1)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int addPromotions(int[] moves, int count, int from, int to, boolean capture) {
+    for (int type = QUEEN; type >= KNIGHT; type--) {
+      moves[count++] = WideMove.promotion(from, to, type, capture);
+    }
+    if (!this.geometry.isStandard()) {
+      moves[count++] = WideMove.promotion(from, to, CHANCELLOR, capture);
+      moves[count++] = WideMove.promotion(from, to, ARCHBISHOP, capture);
+    }
+    return count;
+  }
+
+
+  @Override
+  public int moveFrom(int move) {
+    return WideMove.from(move);
+  }
+
+  @Override
+  public int moveTo(int move) {
+    return WideMove.to(move);
+  }
+
+  @Override
+  public int moveFlag(int move) {
+    return WideMove.flag(move);
+  }
+
+  @Override
+  public int movePromotionType(int move)
+      throws IllegalArgumentException {
+    return WideMove.promotionType(move);
+  }
+
+  @Override
+  public String moveToString(int move) {
+    return WideMove.toString(move, this.geometry);
+  }
+
+  @Override
+  void clearBitboards() {
+    for (long[] set : this.pieceSets) {
+      Arrays.fill(set, 0);
+    }
+    for (long[] set : this.colourSets) {
+      Arrays.fill(set, 0);
+    }
+  }
+
+  @Override
+  void addToBitboards(int piece, int square) {
+    WideBitboards.add(this.pieceSets[piece], square);
+    WideBitboards.add(this.colourSets[colourOf(piece)], square);
+  }
+
+  @Override
+  void removeFromBitboards(int piece, int square) {
+    WideBitboards.remove(this.pieceSets[piece], square);
+    WideBitboards.remove(this.colourSets[colourOf(piece)], square);
+  }
+}
@@ -0,0 +1,39 @@
+package model.board;
+
+import java.util.SplittableRandom;
+import model.posn.BoardGeometry;
+
+/**
+ * Random keys for Zobrist hashing of {@link APosition}s. A position's key is the XOR of the keys
+ * of each piece on its square, the side to move, the castling rights and the en passant file, so
+ * it can be updated incrementally as moves are made and unmade. There are keys for every piece
+ * code and square of the largest boards, which smaller boards use a corner of. The keys are
+ * generated from a fixed seed so that they are stable from run to run.
+ */
+final class Zobrist {
+
+  static final long[][] PIECE_SQUARE =
+      new long[WidePosition.NUM_PIECES][BoardGeometry.MAX_SQUARES];
+  static final long BLACK_TO_MOVE;
+  static final long[] CASTLING = new long[16];
+  static final long[] EN_PASSANT_FILE = new long[BoardGeometry.MAX_DIMENSION];
+
+  static {
+    SplittableRandom random = new SplittableRandom(0x5EED_C4E55L);
+    for (long[] squares : PIECE_SQUARE) {
+      for (int sq = 0; sq < squares.length; sq++) {
+        squares[sq] = random.nextLong();
+      }
+    }
+    BLACK_TO_MOVE = random.nextLong();
+    for (int rights = 0; rights < CASTLING.length; rights++) {
+      CASTLING[rights] = random.nextLong();
+    }
+    for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+      EN_PASSANT_FILE[file] = random.nextLong();
+    }
+  }
+
+  private Zobrist() {
+  }
+}
@@ -0,0 +1,20 @@
+package model.engine;
+
+/**
+ * The stages a {@link MovePicker} moves through, in order. Each stage's moves are only generated
+ * once every earlier stage has been exhausted.
+ */
+public enum EMovePickerStage {
+  HASH_MOVE("Hash move"), CAPTURES("Captures"), KILLERS("Killer moves"), QUIETS("Quiet moves"),
+  BAD_CAPTURES("Losing captures");
+
+  private final String name;
+
+  private EMovePickerStage(String name) {
+    this.name = name;
+  }
+
+  public String toString() {
+    return this.name;
+  }
+}
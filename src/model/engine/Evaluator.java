@@ -0,0 +1,57 @@
+package model.engine;
+
+import model.bitboard.Bitboards;
+import model.board.Position;
+
+/**
+ * A static evaluation of a {@link Position}: material plus a small bonus for centralised minor
+ * pieces and advanced pawns. Scores are in centipawns from the point of view of the side to move.
+ */
+public final class Evaluator {
+
+  /**
+   * The value of each piece type in centipawns. These are the engine's own values, separate from
+   * the whole-pawn {@link model.piece.IChessPiece#getValue()} scores shown to players, and tell
+   * bishops apart from knights. The king is priceless and never traded, so it is counted as
+   * nothing.
+   */
+  public static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 0};
+
+  // bonus for a knight or bishop by its distance from the edge (0 on the rim, 3 in the centre)
+  private static final int[] CENTRALISATION_BONUS = {-10, 0, 8, 15};
+  private static final int PAWN_ADVANCE_BONUS = 5;
+
+  private Evaluator() {
+  }
+
+  public static int evaluate(Position position) {
+    int score = 0;
+    for (int square = 0; square < Bitboards.NUM_SQUARES; square++) {
+      int piece = position.getPieceAt(square);
+      if (piece == Position.NO_PIECE) {
+        continue;
+      }
+      int value = PIECE_VALUES[Position.typeOf(piece)] + positionalBonus(piece, square);
+      score += Position.colourOf(piece) == Position.WHITE ? value : -value;
+    }
+    return position.getSideToMove() == Position.WHITE ? score : -score;
+  }
+
+  private static int positionalBonus(int piece, int square) {
+    int type = Position.typeOf(piece);
+    int row = Bitboards.rowOf(square);
+    int col = Bitboards.colOf(square);
+
+    if (type == Position.KNIGHT || type == Position.BISHOP) {
+      int edgeDistance = Math.min(Math.min(row, Bitboards.BOARD_WIDTH - 1 - row),
+          Math.min(col, Bitboards.BOARD_WIDTH - 1 - col));
+      return CENTRALISATION_BONUS[edgeDistance];
+    } else if (type == Position.PAWN) {
+      // white pawns start on row 6 and advance towards row 0
+      int advanced = Position.colourOf(piece) == Position.WHITE
+          ? Bitboards.BOARD_WIDTH - 2 - row : row - 1;
+      return advanced * PAWN_ADVANCE_BONUS;
+    }
+    return 0;
+  }
+}
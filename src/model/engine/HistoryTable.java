@@ -0,0 +1,48 @@
+package model.engine;
+
+import java.util.Arrays;
+import model.bitboard.Bitboards;
+import model.board.Move;
+
+/**
+ * The history heuristic: a score per side, origin and destination square that grows each time a
+ * quiet move causes a beta cutoff, weighted by the depth of the cutoff. Quiet moves are tried in
+ * descending history order.
+ */
+public final class HistoryTable {
+
+  // keeps scores well inside int range; everything is halved when one gets this large
+  private static final int MAX_SCORE = 1 << 20;
+
+  private final int[] scores;
+
+  public HistoryTable() {
+    this.scores = new int[2 * Bitboards.NUM_SQUARES * Bitboards.NUM_SQUARES];
+  }
+
+  public int getScore(int colour, int move) {
+    return this.scores[index(colour, move)];
+  }
+
+  /**
+   * Rewards a quiet move that caused a cutoff {@code depth} plies from the horizon.
+   */
+  public void addCutoff(int colour, int move, int depth) {
+    int index = index(colour, move);
+    this.scores[index] += depth * depth;
+    if (this.scores[index] > MAX_SCORE) {
+      for (int i = 0; i < this.scores.length; i++) {
+        this.scores[i] /= 2;
+      }
+    }
+  }
+
+  public void clear() {
+    Arrays.fill(this.scores, 0);
+  }
+
+  private static int index(int colour, int move) {
+    return (colour * Bitboards.NUM_SQUARES + Move.from(move)) * Bitboards.NUM_SQUARES
+        + Move.to(move);
+  }
+}
@@ -0,0 +1,43 @@
+package model.engine;
+
+import java.util.Arrays;
+import model.board.Move;
+
+/**
+ * Remembers, for each ply of a search, the two most recent quiet moves that caused a beta cutoff.
+ * Sibling positions at the same ply often share a refutation, so these are tried right after the
+ * captures.
+ */
+public final class KillerTable {
+
+  private final int[] first;
+  private final int[] second;
+
+  public KillerTable(int maxPly) {
+    this.first = new int[maxPly];
+    this.second = new int[maxPly];
+  }
+
+  public int getFirst(int ply) {
+    return this.first[ply];
+  }
+
+  public int getSecond(int ply) {
+    return this.second[ply];
+  }
+
+  /**
+   * Records a quiet move that caused a cutoff at the given ply.
+   */
+  public void add(int ply, int move) {
+    if (this.first[ply] != move) {
+      this.second[ply] = this.first[ply];
+      this.first[ply] = move;
+    }
+  }
+
+  public void clear() {
+    Arrays.fill(this.first, Move.NONE);
+    Arrays.fill(this.second, Move.NONE);
+  }
+}
@@ -0,0 +1,242 @@
+package model.engine;
+
+import model.board.Move;
+import model.board.Position;
+
+/**
+ * <p>Hands out the pseudo-legal moves of a node one at a time, best first, generating them in
+ * stages so that a node cut off early never pays for the moves it would have tried last:</p>
+ * <ol>
+ *   <li>
+ *     {@link EMovePickerStage#HASH_MOVE}: the best move stored in the transposition table
+ *   </li>
+ *   <li>
+ *     {@link EMovePickerStage#CAPTURES}: captures and promotions, most valuable victim first and
+ *     least valuable attacker among equal victims (MVV-LVA), that do not lose material by
+ *     {@link StaticExchange}
+ *   </li>
+ *   <li>
+ *     {@link EMovePickerStage#KILLERS}: the quiet moves that last caused cutoffs at this ply
+ *   </li>
+ *   <li>
+ *     {@link EMovePickerStage#QUIETS}: the remaining quiet moves, by {@link HistoryTable} score
+ *   </li>
+ *   <li>
+ *     {@link EMovePickerStage#BAD_CAPTURES}: the captures that lose material, which quiescence
+ *     nodes prune altogether
+ *   </li>
+ * </ol>
+ * <p>Moves are only sorted as they are asked for (a selection sort that stops early), and moves
+ * already handed out by an earlier stage are skipped by later ones. A picker owns its buffers and
+ * is reset for each node, so a search keeps one per ply and never allocates.</p>
+ */
+public final class MovePicker {
+
+  // internal states; the generating states are entered once per stage
+  private static final int STATE_HASH_MOVE = 0;
+  private static final int STATE_GENERATE_CAPTURES = 1;
+  private static final int STATE_CAPTURES = 2;
+  private static final int STATE_GENERATE_KILLERS = 3;
+  private static final int STATE_KILLERS = 4;
+  private static final int STATE_GENERATE_QUIETS = 5;
+  private static final int STATE_QUIETS = 6;
+  private static final int STATE_BAD_CAPTURES = 7;
+  private static final int STATE_DONE = 8;
+
+  private final int[] moves;
+  private final int[] scores;
+  private final int[] badCaptures;
+  private final StaticExchange exchange;
+
+  private Position position;
+  private HistoryTable history;
+  private SearchStatistics statistics;
+  private int hashMove;
+  private int firstKiller;
+  private int secondKiller;
+  private boolean capturesOnly;
+
+  private int state;
+  private int index;
+  private int count;
+  private int numBadCaptures;
+
+  public MovePicker() {
+    this.moves = new int[Position.MAX_MOVES];
+    this.scores = new int[Position.MAX_MOVES];
+    this.badCaptures = new int[Position.MAX_MOVES];
+    this.exchange = new StaticExchange();
+    this.state = STATE_DONE;
+  }
+
+  /**
+   * Prepares to pick every move of a node of the main search.
+   *
+   * @param position     the position at the node
+   * @param hashMove     the transposition table move, or {@link Move#NONE}
+   * @param firstKiller  the most recent killer move at this ply, or {@link Move#NONE}
+   * @param secondKiller the older killer move at this ply, or {@link Move#NONE}
+   * @param history      the history scores used to order quiet moves
+   * @param statistics   where to count the moves each stage generates
+   */
+  public void reset(Position position, int hashMove, int firstKiller, int secondKiller,
+      HistoryTable history, SearchStatistics statistics) {
+    this.position = position;
+    this.hashMove = hashMove;
+    this.firstKiller = firstKiller;
+    this.secondKiller = secondKiller;
+    this.history = history;
+    this.statistics = statistics;
+    this.capturesOnly = false;
+    this.state = STATE_HASH_MOVE;
+  }
+
+  /**
+   * Prepares to pick only the captures and promotions of a quiescence node, pruning those that
+   * lose material by static exchange.
+   */
+  public void resetCaptures(Position position, SearchStatistics statistics) {
+    this.reset(position, Move.NONE, Move.NONE, Move.NONE, null, statistics);
+    this.capturesOnly = true;
+    this.state = STATE_GENERATE_CAPTURES;
+  }
+
+  /**
+   * The next pseudo-legal move to try, or {@link Move#NONE} once every move has been picked.
+   * Legality is left to the caller.
+   */
+  public int next() {
+    while (true) {
+      switch (this.state) {
+        case STATE_HASH_MOVE:
+          this.state = STATE_GENERATE_CAPTURES;
+          if (this.position.isPseudoLegal(this.hashMove)) {
+            this.statistics.recordStage(EMovePickerStage.HASH_MOVE, 1);
+            return this.hashMove;
+          }
+          this.hashMove = Move.NONE;
+          break;
+
+        case STATE_GENERATE_CAPTURES:
+          this.count = this.position.generateCaptures(this.moves, 0);
+          this.index = 0;
+          this.numBadCaptures = 0;
+          for (int i = 0; i < this.count; i++) {
+            this.scores[i] = this.captureScore(this.moves[i]);
+          }
+          this.statistics.recordStage(EMovePickerStage.CAPTURES, this.count);
+          this.state = STATE_CAPTURES;
+          break;
+
+        case STATE_CAPTURES:
+          while (this.index < this.count) {
+            int move = this.selectBest();
+            if (move == this.hashMove) {
+              continue;
+            }
+            if (this.exchange.isAtLeast(this.position, move, 0)) {
+              return move;
+            }
+            this.badCaptures[this.numBadCaptures++] = move;
+          }
+          this.state = this.capturesOnly ? STATE_DONE : STATE_GENERATE_KILLERS;
+          break;
+
+        case STATE_GENERATE_KILLERS:
+          // a killer that cannot be played here is forgotten, as it is not among the quiets either
+          this.firstKiller = this.playableKiller(this.firstKiller);
+          this.secondKiller = this.playableKiller(this.secondKiller);
+          this.statistics.recordStage(EMovePickerStage.KILLERS,
+              (this.firstKiller != Move.NONE ? 1 : 0) + (this.secondKiller != Move.NONE ? 1 : 0));
+          this.index = 0;
+          this.state = STATE_KILLERS;
+          break;
+
+        case STATE_KILLERS:
+          // index counts the killers tried so far
+          while (this.index < 2) {
+            int killer = this.index++ == 0 ? this.firstKiller : this.secondKiller;
+            if (killer != Move.NONE) {
+              return killer;
+            }
+          }
+          this.state = STATE_GENERATE_QUIETS;
+          break;
+
+        case STATE_GENERATE_QUIETS:
+          this.count = this.position.generateQuiets(this.moves, 0);
+          this.index = 0;
+          int colour = this.position.getSideToMove();
+          for (int i = 0; i < this.count; i++) {
+            this.scores[i] = this.history.getScore(colour, this.moves[i]);
+          }
+          this.statistics.recordStage(EMovePickerStage.QUIETS, this.count);
+          this.state = STATE_QUIETS;
+          break;
+
+        case STATE_QUIETS:
+          while (this.index < this.count) {
+            int move = this.selectBest();
+            if (move != this.hashMove && move != this.firstKiller && move != this.secondKiller) {
+              return move;
+            }
+          }
+          this.index = 0;
+          this.statistics.recordStage(EMovePickerStage.BAD_CAPTURES, this.numBadCaptures);
+          this.state = STATE_BAD_CAPTURES;
+          break;
+
+        case STATE_BAD_CAPTURES:
+          if (this.index < this.numBadCaptures) {
+            return this.badCaptures[this.index++];
+          }
+          this.state = STATE_DONE;
+          break;
+
+        default:
+          return Move.NONE;
+      }
+    }
+  }
+
+  /**
+   * The killer itself if it is a quiet move, other than the hash move, that can be played in this
+   * position, and otherwise {@link Move#NONE}.
+   */
+  private int playableKiller(int killer) {
+    return killer != Move.NONE && killer != this.hashMove && !Move.isTactical(killer)
+        && this.position.isPseudoLegal(killer) ? killer : Move.NONE;
+  }
+
+  /**
+   * Swaps the best-scored remaining move into {@link #index} and returns it.
+   */
+  private int selectBest() {
+    int best = this.index;
+    for (int i = this.index + 1; i < this.count; i++) {
+      if (this.scores[i] > this.scores[best]) {
+        best = i;
+      }
+    }
+
+    int move = this.moves[best];
+    this.moves[best] = this.moves[this.index];
+    this.scores[best] = this.scores[this.index];
+    this.index++;
+    return move;
+  }
+
+  private int captureScore(int move) {
+    int attacker = Position.typeOf(this.position.getPieceAt(Move.from(move)));
+    int score = 0;
+    if (Move.isCapture(move)) {
+      int victim = Move.flag(move) == Move.FLAG_EN_PASSANT ? Position.PAWN
+          : Position.typeOf(this.position.getPieceAt(Move.to(move)));
+      score += Evaluator.PIECE_VALUES[victim] * Position.NUM_PIECE_TYPES;
+    }
+    if (Move.isPromotion(move)) {
+      score += Evaluator.PIECE_VALUES[Move.promotionType(move)] * Position.NUM_PIECE_TYPES;
+    }
+    return score - attacker;
+  }
+}
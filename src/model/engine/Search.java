@@ -0,0 +1,380 @@
+package model.engine;
+
+import java.util.EnumMap;
+import java.util.Map;
+import model.Utils;
+import model.bitboard.Bitboards;
+import model.board.Move;
+import model.board.Position;
+import model.metrics.ChessMetrics;
+import model.tablebase.EEndgame;
+import model.tablebase.EWdl;
+import model.tablebase.Tablebase;
+
+/**
+ * <p>An iterative-deepening alpha-beta search with a quiescence search, a transposition table,
+ * staged move ordering ({@link MovePicker}) and, when tables are supplied, perfect play in the
+ * endgames covered by {@link Tablebase}s. Quiescence searches captures only, except that a side
+ * in check searches every evasion and cannot stand pat, so mates at the horizon are seen.</p>
+ * <p>A search owns all of its working buffers (move pickers, killer and history tables,
+ * transposition table), so one instance can be reused for any number of searches without
+ * allocating. It is not thread-safe: use one instance per thread.</p>
+ */
+public final class Search {
+
+  /**
+   * The deepest ply the search can reach, including quiescence.
+   */
+  public static final int MAX_PLY = 128;
+
+  public static final int INFINITY = 32000;
+  public static final int MATE = 31000;
+  /**
+   * Scores with a larger magnitude than this are forced mates. The band leaves room for a
+   * tablebase mate found at the deepest ply.
+   */
+  public static final int MATE_THRESHOLD = MATE - MAX_PLY - Tablebase.MAX_DISTANCE_TO_MATE;
+
+  private static final int DEFAULT_TABLE_SIZE = 18;
+  // how often, in nodes, the clock is read
+  private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+  private final TranspositionTable table;
+  private final MovePicker[] pickers;
+  private final KillerTable killers;
+  private final HistoryTable history;
+  private final SearchStatistics statistics;
+  private final Map<EEndgame, Tablebase> tablebases;
+
+  private Position position;
+  private long maxNodes;
+  private long deadline;
+  private long nextClockCheck;
+  private boolean aborted;
+  private int rootBestMove;
+
+  /**
+   * Creates a search with a transposition table of {@code 2^log2TableEntries} entries.
+   *
+   * @param log2TableEntries the base-2 logarithm of the transposition table size
+   * @throws IllegalArgumentException if the table size is out of range
+   */
+  public Search(int log2TableEntries)
+      throws IllegalArgumentException {
+    this.table = new TranspositionTable(log2TableEntries);
+    this.pickers = new MovePicker[MAX_PLY];
+    for (int ply = 0; ply < MAX_PLY; ply++) {
+      this.pickers[ply] = new MovePicker();
+    }
+    this.killers = new KillerTable(MAX_PLY);
+    this.history = new HistoryTable();
+    this.statistics = new SearchStatistics();
+    this.tablebases = new EnumMap<>(EEndgame.class);
+  }
+
+  public Search() {
+    this(DEFAULT_TABLE_SIZE);
+  }
+
+  /**
+   * Lets the search play perfectly in the given table's endgame.
+   *
+   * @param tablebase a solved endgame
+   */
+  public void addTablebase(Tablebase tablebase) {
+    Utils.checkNotNull(tablebase, "cannot add a null tablebase");
+    this.tablebases.put(tablebase.getEndgame(), tablebase);
+  }
+
+  /**
+   * Forgets everything learned by previous searches, e.g. before starting a new game.
+   */
+  public void clear() {
+    this.table.clear();
+    this.killers.clear();
+    this.history.clear();
+  }
+
+  /**
+   * Searches a position for the best move. The position is left as it was found.
+   *
+   * @param position the position to search, with the side to move to play
+   * @param limits   when to stop searching
+   * @return the best move found by the deepest completed iteration
+   * @throws IllegalArgumentException if either argument is null
+   */
+  public SearchResult search(Position position, SearchLimits limits)
+      throws IllegalArgumentException {
+    this.position = Utils.checkNotNull(position, "cannot search a null position");
+    Utils.checkNotNull(limits, "cannot search with null limits");
+
+    long start = System.nanoTime();
+    long metricsStart = ChessMetrics.startTimer();
+    this.statistics.reset();
+    this.killers.clear();
+    this.maxNodes = limits.getMaxNodes();
+    this.deadline = limits.getMaxMillis() == Long.MAX_VALUE
+        ? Long.MAX_VALUE : start + limits.getMaxMillis() * 1_000_000;
+    this.nextClockCheck = CLOCK_CHECK_INTERVAL;
+    this.aborted = false;
+
+    int bestMove = Move.NONE;
+    int bestScore = 0;
+    int completedDepth = 0;
+    for (int depth = 1; depth <= limits.getMaxDepth(); depth++) {
+      this.rootBestMove = Move.NONE;
+      int score = this.alphaBeta(depth, 0, -INFINITY, INFINITY);
+      if (this.aborted) {
+        // a partial iteration's move is still at least as good as the last one's
+        if (this.rootBestMove != Move.NONE) {
+          bestMove = this.rootBestMove;
+        }
+        break;
+      }
+      bestMove = this.rootBestMove;
+      bestScore = score;
+      completedDepth = depth;
+      if (bestMove == Move.NONE || Math.abs(score) > MATE_THRESHOLD) {
+        break;
+      }
+    }
+
+    ChessMetrics.recordSearch(this.statistics.getNodes(), metricsStart);
+    return new SearchResult(bestMove, bestScore, completedDepth, System.nanoTime() - start,
+        this.statistics.copy());
+  }
+
+  private int alphaBeta(int depth, int ply, int alpha, int beta) {
+    if (this.shouldStop()) {
+      return 0;
+    }
+    if (depth <= 0 || ply >= MAX_PLY - 1) {
+      return this.quiesce(ply, alpha, beta);
+    }
+    this.statistics.recordNode();
+
+    Position position = this.position;
+    if (ply > 0) {
+      if (position.countRepetitions() > 0 || position.isFiftyMoveDraw()) {
+        return 0;
+      }
+      int tablebaseScore = this.probeTablebase(ply);
+      if (tablebaseScore != -INFINITY) {
+        return tablebaseScore;
+      }
+    }
+
+    long entry = this.table.probe(position.getKey());
+    int hashMove = Move.NONE;
+    if (entry != 0) {
+      this.statistics.recordTranspositionHit();
+      hashMove = TranspositionTable.moveOf(entry);
+      if (ply > 0 && TranspositionTable.depthOf(entry) >= depth) {
+        int score = fromTableScore(TranspositionTable.scoreOf(entry), ply);
+        int bound = TranspositionTable.boundOf(entry);
+        if (bound == TranspositionTable.BOUND_EXACT
+            || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+            || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+          return score;
+        }
+      }
+    }
+
+    int us = position.getSideToMove();
+    boolean inCheck = position.isInCheck();
+    MovePicker picker = this.pickers[ply];
+    picker.reset(position, hashMove, this.killers.getFirst(ply), this.killers.getSecond(ply),
+        this.history, this.statistics);
+
+    int originalAlpha = alpha;
+    int bestScore = -INFINITY;
+    int bestMove = Move.NONE;
+    int legalMoves = 0;
+    int move;
+    while ((move = picker.next()) != Move.NONE) {
+      position.make(move);
+      if (position.isAttacked(position.getKingSquare(us), us ^ 1)) {
+        position.unmake(move);
+        continue;
+      }
+      legalMoves++;
+      int score = -this.alphaBeta(depth - 1, ply + 1, -beta, -alpha);
+      position.unmake(move);
+      if (this.aborted) {
+        return 0;
+      }
+
+      if (score > bestScore) {
+        bestScore = score;
+        bestMove = move;
+        if (ply == 0) {
+          this.rootBestMove = move;
+        }
+      }
+      if (score > alpha) {
+        alpha = score;
+      }
+      if (alpha >= beta) {
+        this.statistics.recordBetaCutoff(legalMoves == 1);
+        if (!Move.isTactical(move)) {
+          this.killers.add(ply, move);
+          this.history.addCutoff(us, move, depth);
+        }
+        break;
+      }
+    }
+
+    if (legalMoves == 0) {
+      return inCheck ? -MATE + ply : 0;
+    }
+
+    int bound = bestScore >= beta ? TranspositionTable.BOUND_LOWER
+        : bestScore > originalAlpha ? TranspositionTable.BOUND_EXACT
+        : TranspositionTable.BOUND_UPPER;
+    this.table.store(position.getKey(), bestMove, depth, bound, toTableScore(bestScore, ply));
+    return bestScore;
+  }
+
+  private int quiesce(int ply, int alpha, int beta) {
+    if (this.shouldStop()) {
+      return 0;
+    }
+    this.statistics.recordQuiescenceNode();
+
+    Position position = this.position;
+    if (ply >= MAX_PLY - 1) {
+      return Evaluator.evaluate(position);
+    }
+    boolean inCheck = position.isInCheck();
+    MovePicker picker = this.pickers[ply];
+    if (inCheck) {
+      // a side in check cannot stand pat, and every evasion is searched, not only captures
+      picker.reset(position, Move.NONE, this.killers.getFirst(ply), this.killers.getSecond(ply),
+          this.history, this.statistics);
+    } else {
+      int standPat = Evaluator.evaluate(position);
+      if (standPat >= beta) {
+        return standPat;
+      }
+      if (standPat > alpha) {
+        alpha = standPat;
+      }
+      picker.resetCaptures(position, this.statistics);
+    }
+
+    int us = position.getSideToMove();
+    int legalMoves = 0;
+    int move;
+    while ((move = picker.next()) != Move.NONE) {
+      position.make(move);
+      if (position.isAttacked(position.getKingSquare(us), us ^ 1)) {
+        position.unmake(move);
+        continue;
+      }
+      legalMoves++;
+      int score = -this.quiesce(ply + 1, -beta, -alpha);
+      position.unmake(move);
+      if (this.aborted) {
+        return 0;
+      }
+
+      if (score >= beta) {
+        return score;
+      }
+      if (score > alpha) {
+        alpha = score;
+      }
+    }
+    if (inCheck && legalMoves == 0) {
+      return -MATE + ply;
+    }
+    return alpha;
+  }
+
+  /**
+   * Scores the current position exactly if it is a tablebase endgame.
+   *
+   * @return the score, or {@code -INFINITY} if no table covers the position
+   */
+  private int probeTablebase(int ply) {
+    if (this.tablebases.isEmpty() || Bitboards.count(this.position.getOccupied()) != 3) {
+      return -INFINITY;
+    }
+
+    Position position = this.position;
+    for (int colour = Position.WHITE; colour <= Position.BLACK; colour++) {
+      long extra = position.getPieces(colour) & ~position.getPieces(colour, Position.KING);
+      if (extra == 0) {
+        continue;
+      }
+      int square = Bitboards.lowestSquare(extra);
+      Tablebase tablebase = this.tablebases.get(endgameOf(Position.typeOf(
+          position.getPieceAt(square))));
+      if (tablebase == null) {
+        return -INFINITY;
+      }
+
+      int result = tablebase.probe(Position.playerOf(colour),
+          Position.playerOf(position.getSideToMove()), position.getKingSquare(colour),
+          position.getKingSquare(colour ^ 1), square);
+      this.statistics.recordTablebaseHit();
+      return tablebaseScore(result, ply);
+    }
+    return -INFINITY;
+  }
+
+  /**
+   * The search score of a tablebase probe for the side to move at the given ply: a mate score for
+   * a win or loss, counting the plies to mate from the root, or 0 for a draw.
+   *
+   * @param probeResult a legal result returned by {@link Tablebase#probe}
+   * @param ply         the ply of the probed position, from 0 at the root
+   * @throws IllegalArgumentException if the probed position could not arise in a game
+   */
+  public static int tablebaseScore(int probeResult, int ply)
+      throws IllegalArgumentException {
+    EWdl wdl = Tablebase.wdlOf(probeResult);
+    int distance = Tablebase.distanceToMateOf(probeResult);
+    return wdl == EWdl.WIN ? MATE - ply - distance
+        : wdl == EWdl.LOSS ? -MATE + ply + distance : 0;
+  }
+
+  private static EEndgame endgameOf(int type) {
+    switch (type) {
+      case Position.QUEEN:
+        return EEndgame.KQK;
+      case Position.ROOK:
+        return EEndgame.KRK;
+      case Position.PAWN:
+        return EEndgame.KPK;
+      default:
+        return null;
+    }
+  }
+
+  private boolean shouldStop() {
+    if (this.aborted) {
+      return true;
+    }
+    long nodes = this.statistics.getNodes();
+    if (nodes >= this.maxNodes) {
+      this.aborted = true;
+    } else if (nodes >= this.nextClockCheck) {
+      this.nextClockCheck = nodes + CLOCK_CHECK_INTERVAL;
+      this.aborted = System.nanoTime() >= this.deadline;
+    }
+    return this.aborted;
+  }
+
+  /**
+   * Mate scores are stored relative to the node rather than the root, so that they stay correct
+   * when the entry is found at a different ply.
+   */
+  private static int toTableScore(int score, int ply) {
+    return score > MATE_THRESHOLD ? score + ply : score < -MATE_THRESHOLD ? score - ply : score;
+  }
+
+  private static int fromTableScore(int score, int ply) {
+    return score > MATE_THRESHOLD ? score - ply : score < -MATE_THRESHOLD ? score + ply : score;
+  }
+}
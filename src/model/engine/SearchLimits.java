@@ -0,0 +1,65 @@
+package model.engine;
+
+import model.Utils;
+
+/**
+ * How far a {@link Search} may go: a maximum depth, a node budget and a time budget. The search
+ * stops at whichever limit it reaches first.
+ */
+public final class SearchLimits {
+
+  private final int maxDepth;
+  private final long maxNodes;
+  private final long maxMillis;
+
+  /**
+   * Creates limits for a search.
+   *
+   * @param maxDepth  the deepest iteration to search, in plies
+   * @param maxNodes  the most nodes to visit
+   * @param maxMillis the most time to spend, in milliseconds
+   * @throws IllegalArgumentException if the depth is not in {@code [1, Search.MAX_PLY)} or either
+   *                                  budget is not positive
+   */
+  public SearchLimits(int maxDepth, long maxNodes, long maxMillis)
+      throws IllegalArgumentException {
+    this.maxDepth = Utils.checkIntBetween(maxDepth, 1, Search.MAX_PLY - 1);
+    if (maxNodes <= 0 || maxMillis <= 0) {
+      throw new IllegalArgumentException("search budgets must be positive, got " + maxNodes
+          + " nodes and " + maxMillis + "ms");
+    }
+    this.maxNodes = maxNodes;
+    this.maxMillis = maxMillis;
+  }
+
+  public static SearchLimits depth(int maxDepth) {
+    return new SearchLimits(maxDepth, Long.MAX_VALUE, Long.MAX_VALUE);
+  }
+
+  public static SearchLimits nodes(long maxNodes) {
+    return new SearchLimits(Search.MAX_PLY - 1, maxNodes, Long.MAX_VALUE);
+  }
+
+  public static SearchLimits millis(long maxMillis) {
+    return new SearchLimits(Search.MAX_PLY - 1, Long.MAX_VALUE, maxMillis);
+  }
+
+  public int getMaxDepth() {
+    return this.maxDepth;
+  }
+
+  public long getMaxNodes() {
+    return this.maxNodes;
+  }
+
+  public long getMaxMillis() {
+    return this.maxMillis;
+  }
+
+  @Override
+  public String toString() {
+    return "depth " + this.maxDepth
+        + (this.maxNodes == Long.MAX_VALUE ? "" : ", " + this.maxNodes + " nodes")
+        + (this.maxMillis == Long.MAX_VALUE ? "" : ", " + this.maxMillis + "ms");
+  }
+}
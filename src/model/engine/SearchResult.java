@@ -0,0 +1,66 @@
+package model.engine;
+
+import model.Utils;
+import model.board.Move;
+
+/**
+ * The outcome of a {@link Search}: the best move found, its score, and how much work it took.
+ */
+public final class SearchResult {
+
+  private final int bestMove;
+  private final int score;
+  private final int depth;
+  private final long elapsedNanos;
+  private final SearchStatistics statistics;
+
+  SearchResult(int bestMove, int score, int depth, long elapsedNanos,
+      SearchStatistics statistics) {
+    this.bestMove = bestMove;
+    this.score = score;
+    this.depth = depth;
+    this.elapsedNanos = elapsedNanos;
+    this.statistics = Utils.nonNullConstructor(statistics, "SearchResult", "SearchStatistics");
+  }
+
+  /**
+   * The best move found, or {@link Move#NONE} if the side to move has no legal moves.
+   */
+  public int getBestMove() {
+    return this.bestMove;
+  }
+
+  /**
+   * The score of the best move in centipawns for the side to move; scores beyond
+   * {@link Search#MATE_THRESHOLD} are forced mates.
+   */
+  public int getScore() {
+    return this.score;
+  }
+
+  /**
+   * The depth of the deepest completed iteration.
+   */
+  public int getDepth() {
+    return this.depth;
+  }
+
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  public SearchStatistics getStatistics() {
+    return this.statistics;
+  }
+
+  public double getNodesPerSecond() {
+    return this.elapsedNanos == 0 ? 0 : this.statistics.getNodes() * 1e9 / this.elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("bestmove %s score %d depth %d (%.0f nodes/sec)",
+        this.bestMove == Move.NONE ? "(none)" : Move.toString(this.bestMove), this.score,
+        this.depth, this.getNodesPerSecond());
+  }
+}
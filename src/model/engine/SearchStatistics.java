@@ -0,0 +1,146 @@
+package model.engine;
+
+import java.util.Arrays;
+
+/**
+ * Counters describing the work done by a {@link Search}, including how many moves each
+ * {@link EMovePickerStage} generated. Comparing the stage counts shows how often a node was cut off
+ * before its later stages were ever generated.
+ */
+public final class SearchStatistics {
+
+  private long nodes;
+  private long quiescenceNodes;
+  private long transpositionHits;
+  private long betaCutoffs;
+  private long firstMoveCutoffs;
+  private long tablebaseHits;
+  private final long[] stageGenerated;
+  private final long[] stageEntered;
+
+  public SearchStatistics() {
+    this.stageGenerated = new long[EMovePickerStage.values().length];
+    this.stageEntered = new long[EMovePickerStage.values().length];
+  }
+
+  void recordNode() {
+    this.nodes++;
+  }
+
+  void recordQuiescenceNode() {
+    this.nodes++;
+    this.quiescenceNodes++;
+  }
+
+  void recordTranspositionHit() {
+    this.transpositionHits++;
+  }
+
+  void recordTablebaseHit() {
+    this.tablebaseHits++;
+  }
+
+  void recordBetaCutoff(boolean firstMove) {
+    this.betaCutoffs++;
+    if (firstMove) {
+      this.firstMoveCutoffs++;
+    }
+  }
+
+  /**
+   * Records that a move picker entered {@code stage} and produced {@code numMoves} candidates
+   * from it.
+   */
+  void recordStage(EMovePickerStage stage, int numMoves) {
+    this.stageEntered[stage.ordinal()]++;
+    this.stageGenerated[stage.ordinal()] += numMoves;
+  }
+
+  public long getNodes() {
+    return this.nodes;
+  }
+
+  public long getQuiescenceNodes() {
+    return this.quiescenceNodes;
+  }
+
+  public long getTranspositionHits() {
+    return this.transpositionHits;
+  }
+
+  public long getTablebaseHits() {
+    return this.tablebaseHits;
+  }
+
+  public long getBetaCutoffs() {
+    return this.betaCutoffs;
+  }
+
+  /**
+   * The fraction of beta cutoffs caused by the first move tried, a measure of move ordering.
+   */
+  public double getFirstMoveCutoffRate() {
+    return this.betaCutoffs == 0 ? 0 : (double) this.firstMoveCutoffs / this.betaCutoffs;
+  }
+
+  /**
+   * The number of moves generated by the given stage across the whole search.
+   */
+  public long getGenerated(EMovePickerStage stage) {
+    return this.stageGenerated[stage.ordinal()];
+  }
+
+  /**
+   * The number of nodes that reached the given stage, counting each node once however many moves
+   * the stage yielded.
+   */
+  public long getEntered(EMovePickerStage stage) {
+    return this.stageEntered[stage.ordinal()];
+  }
+
+  /**
+   * Adds another search's counters to these, e.g. to total several searches.
+   */
+  public void add(SearchStatistics other) {
+    this.nodes += other.nodes;
+    this.quiescenceNodes += other.quiescenceNodes;
+    this.transpositionHits += other.transpositionHits;
+    this.tablebaseHits += other.tablebaseHits;
+    this.betaCutoffs += other.betaCutoffs;
+    this.firstMoveCutoffs += other.firstMoveCutoffs;
+    for (int stage = 0; stage < this.stageGenerated.length; stage++) {
+      this.stageGenerated[stage] += other.stageGenerated[stage];
+      this.stageEntered[stage] += other.stageEntered[stage];
+    }
+  }
+
+  public void reset() {
+    this.nodes = 0;
+    this.quiescenceNodes = 0;
+    this.transpositionHits = 0;
+    this.tablebaseHits = 0;
+    this.betaCutoffs = 0;
+    this.firstMoveCutoffs = 0;
+    Arrays.fill(this.stageGenerated, 0);
+    Arrays.fill(this.stageEntered, 0);
+  }
+
+  public SearchStatistics copy() {
+    SearchStatistics copy = new SearchStatistics();
+    copy.add(this);
+    return copy;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder rendered = new StringBuilder(String.format(
+        "nodes=%d (quiescence %d) tt hits=%d tablebase hits=%d cutoffs=%d (%.1f%% first move)",
+        this.nodes, this.quiescenceNodes, this.transpositionHits, this.tablebaseHits,
+        this.betaCutoffs, 100 * this.getFirstMoveCutoffRate()));
+    for (EMovePickerStage stage : EMovePickerStage.values()) {
+      rendered.append(String.format("%n  %s: entered %d, generated %d", stage,
+          this.getEntered(stage), this.getGenerated(stage)));
+    }
+    return rendered.toString();
+  }
+}
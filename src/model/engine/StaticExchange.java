@@ -0,0 +1,136 @@
+package model.engine;
+
+import model.bitboard.Bitboards;
+import model.board.Move;
+import model.board.Position;
+
+/**
+ * <p>Static exchange evaluation (SEE): the material a move wins or loses once every capture on its
+ * destination square has been played out, with each side recapturing with its least valuable
+ * attacker and free to stop whenever continuing would lose material.</p>
+ * <p>Attackers come from the position's attack bitboards. As each attacker is used it is removed
+ * from the occupancy, so sliders lined up behind it (x-rays, e.g. a rook behind a rook or a queen
+ * behind a bishop) join the exchange. The evaluator keeps its swap list in a preallocated buffer,
+ * so evaluating never allocates; like the rest of a {@link Search}'s buffers it is not
+ * thread-safe.</p>
+ */
+public final class StaticExchange {
+
+  // piece values for exchanges, in centipawns; the king can never actually be captured
+  private static final int[] VALUES = {100, 320, 330, 500, 900, 20000};
+
+  // no exchange can involve more than every piece on the board
+  private static final int MAX_EXCHANGE = 33;
+
+  private final int[] gains;
+
+  public StaticExchange() {
+    this.gains = new int[MAX_EXCHANGE];
+  }
+
+  /**
+   * The material balance, in centipawns for the side making the move, once the exchange started by
+   * {@code move} is resolved.
+   *
+   * @param position the position the move is played in
+   * @param move     a pseudo-legal move in that position
+   * @return the material won (positive) or lost (negative)
+   */
+  public int evaluate(Position position, int move) {
+    if (Move.isCastle(move)) {
+      return 0;
+    }
+
+    int from = Move.from(move);
+    int to = Move.to(move);
+    int mover = position.getSideToMove();
+    long occupied = position.getOccupied() & ~Bitboards.bit(from);
+
+    int captured;
+    if (Move.flag(move) == Move.FLAG_EN_PASSANT) {
+      captured = VALUES[Position.PAWN];
+      occupied &= ~Bitboards.bit(to + (mover == Position.WHITE
+          ? Bitboards.BOARD_WIDTH : -Bitboards.BOARD_WIDTH));
+    } else {
+      int target = position.getPieceAt(to);
+      captured = target == Position.NO_PIECE ? 0 : VALUES[Position.typeOf(target)];
+    }
+
+    // the value of the piece standing on the target square, about to be captured next
+    int onSquare = VALUES[Position.typeOf(position.getPieceAt(from))];
+    this.gains[0] = captured;
+    if (Move.isPromotion(move)) {
+      onSquare = VALUES[Move.promotionType(move)];
+      this.gains[0] += onSquare - VALUES[Position.PAWN];
+    }
+
+    long diagonal = position.getPieces(Position.WHITE, Position.BISHOP)
+        | position.getPieces(Position.BLACK, Position.BISHOP)
+        | position.getPieces(Position.WHITE, Position.QUEEN)
+        | position.getPieces(Position.BLACK, Position.QUEEN);
+    long straight = position.getPieces(Position.WHITE, Position.ROOK)
+        | position.getPieces(Position.BLACK, Position.ROOK)
+        | position.getPieces(Position.WHITE, Position.QUEEN)
+        | position.getPieces(Position.BLACK, Position.QUEEN);
+
+    long attackers = position.getAttackersTo(to, occupied) & occupied;
+    int side = mover ^ 1;
+    int depth = 0;
+
+    while (true) {
+      long ours = attackers & position.getPieces(side);
+      if (ours == 0) {
+        break;
+      }
+
+      int type = Position.PAWN;
+      long attacker = ours & position.getPieces(side, type);
+      while (attacker == 0) {
+        attacker = ours & position.getPieces(side, ++type);
+      }
+      if (type == Position.KING && (attackers & position.getPieces(side ^ 1)) != 0) {
+        // the king cannot capture onto a defended square
+        break;
+      }
+
+      depth++;
+      this.gains[depth] = onSquare - this.gains[depth - 1];
+      onSquare = VALUES[type];
+
+      occupied &= ~(attacker & -attacker);
+      // reveal x-ray attackers behind the piece that just captured
+      if (type == Position.PAWN || type == Position.BISHOP || type == Position.QUEEN) {
+        attackers |= Bitboards.bishopAttacks(to, occupied) & diagonal;
+      }
+      if (type == Position.ROOK || type == Position.QUEEN) {
+        attackers |= Bitboards.rookAttacks(to, occupied) & straight;
+      }
+      attackers &= occupied;
+      side ^= 1;
+    }
+
+    // each side may decline to continue the exchange
+    while (depth > 0) {
+      this.gains[depth - 1] = -Math.max(-this.gains[depth - 1], this.gains[depth]);
+      depth--;
+    }
+    return this.gains[0];
+  }
+
+  /**
+   * Whether {@code move} wins at least {@code threshold} centipawns by static exchange, e.g.
+   * {@code 0} to tell winning and even captures from losing ones. Captures of a piece at least as
+   * valuable as the capturer are accepted without playing out the exchange.
+   */
+  public boolean isAtLeast(Position position, int move, int threshold) {
+    if (threshold <= 0 && Move.isCapture(move) && !Move.isPromotion(move)
+        && Move.flag(move) != Move.FLAG_EN_PASSANT) {
+      int victim = VALUES[Position.typeOf(position.getPieceAt(Move.to(move)))];
+      int attacker = VALUES[Position.typeOf(position.getPieceAt(Move.from(move)))];
+      if (victim - attacker >= threshold) {
+        return true;
+      }
+    }
+    return this.evaluate(position, move) >= threshold;
+  }
+}
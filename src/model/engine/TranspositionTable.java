@@ -0,0 +1,95 @@
+package model.engine;
+
+import java.util.Arrays;
+import model.Utils;
+import model.board.Move;
+import model.metrics.ChessMetrics;
+
+/**
+ * <p>A fixed-size cache of search results keyed by {@link model.board.Position#getKey()}. Each
+ * entry is two {@code long}s: the full key, and the best move, depth, bound type and score packed
+ * into the other. Newer results always replace older ones in the same slot.</p>
+ * <p>Not thread-safe; each {@link Search} owns its own table.</p>
+ */
+public final class TranspositionTable {
+
+  public static final int BOUND_EXACT = 0;
+  public static final int BOUND_LOWER = 1;
+  public static final int BOUND_UPPER = 2;
+
+  /**
+   * The range of sizes a table can be created with, as base-2 logarithms of its entries.
+   */
+  public static final int MIN_LOG2_ENTRIES = 1;
+  public static final int MAX_LOG2_ENTRIES = 28;
+
+  private final long[] keys;
+  private final long[] data;
+  private final int mask;
+
+  /**
+   * Creates a table with {@code 2^log2Entries} entries, using {@code 16 << log2Entries} bytes.
+   *
+   * @param log2Entries the base-2 logarithm of the number of entries
+   * @throws IllegalArgumentException if the size is not in
+   *                                  {@code [MIN_LOG2_ENTRIES, MAX_LOG2_ENTRIES]}
+   */
+  public TranspositionTable(int log2Entries)
+      throws IllegalArgumentException {
+    Utils.checkIntBetween(log2Entries, MIN_LOG2_ENTRIES, MAX_LOG2_ENTRIES);
+    this.keys = new long[1 << log2Entries];
+    this.data = new long[1 << log2Entries];
+    this.mask = (1 << log2Entries) - 1;
+  }
+
+  /**
+   * Finds the entry for a position.
+   *
+   * @param key the position's key
+   * @return the packed entry, or 0 if there is none; read it with the static accessors
+   */
+  public long probe(long key) {
+    int slot = (int) key & this.mask;
+    boolean hit = this.keys[slot] == key && this.data[slot] != 0;
+    ChessMetrics.recordCacheProbe(hit);
+    return hit ? this.data[slot] : 0;
+  }
+
+  public void store(long key, int move, int depth, int bound, int score) {
+    int slot = (int) key & this.mask;
+    this.keys[slot] = key;
+    // the depth is offset by one so that no stored entry packs to 0
+    this.data[slot] = (move & 0xFFFFL)
+        | (long) (depth + 1 & 0xFF) << 16
+        | (long) bound << 24
+        | (long) score << 32;
+  }
+
+  public static int moveOf(long entry) {
+    return (int) (entry & 0xFFFF);
+  }
+
+  public static int depthOf(long entry) {
+    return (int) (entry >>> 16 & 0xFF) - 1;
+  }
+
+  public static int boundOf(long entry) {
+    return (int) (entry >>> 24 & 3);
+  }
+
+  public static int scoreOf(long entry) {
+    return (int) (entry >> 32);
+  }
+
+  public void clear() {
+    Arrays.fill(this.keys, 0);
+    Arrays.fill(this.data, 0);
+  }
+
+  /**
+   * Whether an entry holds a move as opposed to {@link Move#NONE}.
+   */
+  public static boolean hasMove(long entry) {
+    return moveOf(entry) != Move.NONE;
+  }
+}
@@ -0,0 +1,130 @@
+package model.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Opt-in counters and histograms for the hot paths of the model and engine. Metrics are off
+ * unless the JVM is started with {@code -Dchess.metrics=true}.</p>
+ * <p>Every recording method first checks {@link #ENABLED}. Because it is a {@code static final}
+ * constant the JIT folds the check away, so when metrics are disabled an instrumented call site
+ * costs nothing beyond the (inlined) empty method call. Call sites that would have to do extra work
+ * just to produce a sample, such as reading the clock, should go through {@link #startTimer()} or
+ * guard themselves with {@link #ENABLED}.</p>
+ * <p>{@link #snapshot()} reads every metric at once, and {@link JfrMetrics} republishes the same
+ * data as Java Flight Recorder events.</p>
+ */
+public final class ChessMetrics {
+
+  /**
+   * Whether metrics are being recorded in this JVM.
+   */
+  public static final boolean ENABLED = Boolean.getBoolean("chess.metrics");
+
+  private static final Histogram MODEL_MOVE_NANOS = new Histogram("model.move.nanos");
+  private static final Histogram MOVES_GENERATED = new Histogram("movegen.moves.per.call");
+  private static final LongAdder MAKES = new LongAdder();
+  private static final LongAdder UNMAKES = new LongAdder();
+  private static final LongAdder CACHE_PROBES = new LongAdder();
+  private static final LongAdder CACHE_HITS = new LongAdder();
+  private static final LongAdder SEARCH_NODES = new LongAdder();
+  private static final LongAdder SEARCH_NANOS = new LongAdder();
+
+  private ChessMetrics() {
+  }
+
+  /**
+   * Starts timing an operation.
+   *
+   * @return the current {@link System#nanoTime()}, or 0 without reading the clock when metrics are
+   *         disabled
+   */
+  public static long startTimer() {
+    return ENABLED ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Records the latency of one {@link model.IChessModel#move} call.
+   *
+   * @param startNanos the value returned by {@link #startTimer()} when the move began
+   */
+  public static void recordModelMove(long startNanos) {
+    if (ENABLED) {
+      long elapsed = System.nanoTime() - startNanos;
+      MODEL_MOVE_NANOS.record(elapsed);
+      JfrMetrics.commitModelMove(elapsed);
+    }
+  }
+
+  /**
+   * Records how many moves a single call to a move generator produced.
+   */
+  public static void recordMovesGenerated(int numMoves) {
+    if (ENABLED) {
+      MOVES_GENERATED.record(numMoves);
+    }
+  }
+
+  public static void recordMake() {
+    if (ENABLED) {
+      MAKES.increment();
+    }
+  }
+
+  public static void recordUnmake() {
+    if (ENABLED) {
+      UNMAKES.increment();
+    }
+  }
+
+  /**
+   * Records one lookup in a cache such as a transposition table.
+   *
+   * @param hit whether the lookup found a usable entry
+   */
+  public static void recordCacheProbe(boolean hit) {
+    if (ENABLED) {
+      CACHE_PROBES.increment();
+      if (hit) {
+        CACHE_HITS.increment();
+      }
+    }
+  }
+
+  /**
+   * Records a finished search.
+   *
+   * @param nodes      the number of nodes the search visited
+   * @param startNanos the value returned by {@link #startTimer()} when the search began
+   */
+  public static void recordSearch(long nodes, long startNanos) {
+    if (ENABLED) {
+      long elapsed = System.nanoTime() - startNanos;
+      SEARCH_NODES.add(nodes);
+      SEARCH_NANOS.add(elapsed);
+      JfrMetrics.commitSearch(nodes, elapsed);
+    }
+  }
+
+  /**
+   * Reads the current value of every metric. All values are zero when metrics are disabled.
+   */
+  public static MetricsSnapshot snapshot() {
+    return new MetricsSnapshot(ENABLED, MODEL_MOVE_NANOS.snapshot(), MOVES_GENERATED.snapshot(),
+        MAKES.sum(), UNMAKES.sum(), CACHE_PROBES.sum(), CACHE_HITS.sum(), SEARCH_NODES.sum(),
+        SEARCH_NANOS.sum());
+  }
+
+  /**
+   * Clears every metric, e.g. between benchmark iterations.
+   */
+  public static void reset() {
+    MODEL_MOVE_NANOS.reset();
+    MOVES_GENERATED.reset();
+    MAKES.reset();
+    UNMAKES.reset();
+    CACHE_PROBES.reset();
+    CACHE_HITS.reset();
+    SEARCH_NODES.reset();
+    SEARCH_NANOS.reset();
+  }
+}
@@ -0,0 +1,160 @@
+package model.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import model.Utils;
+
+/**
+ * A thread-safe histogram of non-negative {@code long} samples. Samples are counted in
+ * power-of-two buckets, so recording is a handful of atomic adds and never allocates, at the cost
+ * of percentiles only being accurate to within a factor of two.
+ */
+public final class Histogram {
+
+  // bucket i holds samples in [2^(i-1), 2^i), with bucket 0 holding only 0
+  private static final int NUM_BUCKETS = Long.SIZE + 1;
+
+  private final String name;
+  private final AtomicLongArray buckets;
+  private final LongAdder count;
+  private final LongAdder sum;
+  private final AtomicLong max;
+
+  public Histogram(String name) {
+    this.name = Utils.nonNullConstructor(name, "Histogram", "String");
+    this.buckets = new AtomicLongArray(NUM_BUCKETS);
+    this.count = new LongAdder();
+    this.sum = new LongAdder();
+    this.max = new AtomicLong();
+  }
+
+  /**
+   * Records one sample, clamping negative samples to 0.
+   *
+   * @param sample the value to record
+   */
+  public void record(long sample) {
+    long value = Math.max(0, sample);
+    this.buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+    this.count.increment();
+    this.sum.add(value);
+    this.max.accumulateAndGet(value, Math::max);
+  }
+
+  public String getName() {
+    return this.name;
+  }
+
+  public long getCount() {
+    return this.count.sum();
+  }
+
+  /**
+   * Estimates the given percentile as the upper bound of the bucket it falls in.
+   *
+   * @param percentile the percentile to estimate, in {@code [0, 100]}
+   * @return the estimate, or 0 if nothing has been recorded
+   * @throws IllegalArgumentException if the percentile is out of range
+   */
+  public long getPercentile(double percentile)
+      throws IllegalArgumentException {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile " + percentile + " out of bounds for range "
+          + "[0,100].");
+    }
+
+    long total = this.getCount();
+    if (total == 0) {
+      return 0;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+    long seen = 0;
+    for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+      seen += this.buckets.get(bucket);
+      if (seen >= rank) {
+        return Math.min(this.max.get(), bucket == 0 ? 0 : (1L << bucket) - 1);
+      }
+    }
+    return this.max.get();
+  }
+
+  /**
+   * Takes a consistent-enough copy of this histogram's summary statistics. Samples recorded while
+   * the snapshot is being taken may or may not be included.
+   */
+  public HistogramSnapshot snapshot() {
+    long total = this.getCount();
+    return new HistogramSnapshot(this.name, total,
+        total == 0 ? 0 : (double) this.sum.sum() / total,
+        this.getPercentile(50), this.getPercentile(90), this.getPercentile(99), this.max.get());
+  }
+
+  public void reset() {
+    for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+      this.buckets.set(bucket, 0);
+    }
+    this.count.reset();
+    this.sum.reset();
+    this.max.set(0);
+  }
+
+  /**
+   * An immutable summary of a {@link Histogram} at some point in time.
+   */
+  public static final class HistogramSnapshot {
+    private final String name;
+    private final long count;
+    private final double mean;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long max;
+
+    HistogramSnapshot(String name, long count, double mean, long p50, long p90, long p99,
+        long max) {
+      this.name = name;
+      this.count = count;
+      this.mean = mean;
+      this.p50 = p50;
+      this.p90 = p90;
+      this.p99 = p99;
+      this.max = max;
+    }
+
+    public String getName() {
+      return this.name;
+    }
+
+    public long getCount() {
+      return this.count;
+    }
+
+    public double getMean() {
+      return this.mean;
+    }
+
+    public long getP50() {
+      return this.p50;
+    }
+
+    public long getP90() {
+      return this.p90;
+    }
+
+    public long getP99() {
+      return this.p99;
+    }
+
+    public long getMax() {
+      return this.max;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s: count=%d mean=%.1f p50<=%d p90<=%d p99<=%d max=%d",
+          this.name, this.count, this.mean, this.p50, this.p90, this.p99, this.max);
+    }
+  }
+}
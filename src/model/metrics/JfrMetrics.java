@@ -0,0 +1,134 @@
+package model.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * <p>Publishes {@link ChessMetrics} as custom Java Flight Recorder events, so that they show up
+ * alongside GC and allocation data in a recording (e.g. {@code -XX:StartFlightRecording}).</p>
+ * <ul>
+ *   <li>
+ *     {@code chess.ModelMove} for every {@link model.IChessModel#move} call
+ *   </li>
+ *   <li>
+ *     {@code chess.Search} for every finished search
+ *   </li>
+ *   <li>
+ *     {@code chess.MetricsSnapshot} periodically, once {@link #registerPeriodicSnapshot()} is
+ *     called
+ *   </li>
+ * </ul>
+ * <p>Events are only produced while {@link ChessMetrics#ENABLED} is set.</p>
+ */
+public final class JfrMetrics {
+
+  private static final Runnable SNAPSHOT_HOOK = JfrMetrics::commitSnapshot;
+
+  private static boolean registered;
+
+  private JfrMetrics() {
+  }
+
+  /**
+   * Starts emitting a {@code chess.MetricsSnapshot} event every recording period (one second by
+   * default). Calling this more than once has no further effect.
+   */
+  public static synchronized void registerPeriodicSnapshot() {
+    if (ChessMetrics.ENABLED && !registered) {
+      FlightRecorder.addPeriodicEvent(SnapshotEvent.class, SNAPSHOT_HOOK);
+      registered = true;
+    }
+  }
+
+  static void commitModelMove(long elapsedNanos) {
+    ModelMoveEvent event = new ModelMoveEvent();
+    if (event.shouldCommit()) {
+      event.latency = elapsedNanos;
+      event.commit();
+    }
+  }
+
+  static void commitSearch(long nodes, long elapsedNanos) {
+    SearchEvent event = new SearchEvent();
+    if (event.shouldCommit()) {
+      event.nodes = nodes;
+      event.elapsed = elapsedNanos;
+      event.nodesPerSecond = elapsedNanos == 0 ? 0 : nodes * 1e9 / elapsedNanos;
+      event.commit();
+    }
+  }
+
+  private static void commitSnapshot() {
+    MetricsSnapshot snapshot = ChessMetrics.snapshot();
+    SnapshotEvent event = new SnapshotEvent();
+    event.moveCount = snapshot.getModelMoveNanos().getCount();
+    event.moveP99 = snapshot.getModelMoveNanos().getP99();
+    event.makes = snapshot.getMakes();
+    event.unmakes = snapshot.getUnmakes();
+    event.cacheHitRate = snapshot.getCacheHitRate();
+    event.searchNodes = snapshot.getSearchNodes();
+    event.nodesPerSecond = snapshot.getSearchNodesPerSecond();
+    event.commit();
+  }
+
+  @Name("chess.ModelMove")
+  @Label("Chess Model Move")
+  @Category("Chess")
+  @StackTrace(false)
+  static final class ModelMoveEvent extends Event {
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+  }
+
+  @Name("chess.Search")
+  @Label("Chess Search")
+  @Category("Chess")
+  @StackTrace(false)
+  static final class SearchEvent extends Event {
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    @Label("Nodes Per Second")
+    double nodesPerSecond;
+  }
+
+  @Name("chess.MetricsSnapshot")
+  @Label("Chess Metrics Snapshot")
+  @Category("Chess")
+  @Period("1 s")
+  @StackTrace(false)
+  static final class SnapshotEvent extends Event {
+    @Label("Model Moves")
+    long moveCount;
+
+    @Label("Model Move p99")
+    @Timespan(Timespan.NANOSECONDS)
+    long moveP99;
+
+    @Label("Makes")
+    long makes;
+
+    @Label("Unmakes")
+    long unmakes;
+
+    @Label("Cache Hit Rate")
+    double cacheHitRate;
+
+    @Label("Search Nodes")
+    long searchNodes;
+
+    @Label("Nodes Per Second")
+    double nodesPerSecond;
+  }
+}
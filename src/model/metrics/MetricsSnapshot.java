@@ -0,0 +1,96 @@
+package model.metrics;
+
+import model.Utils;
+import model.metrics.Histogram.HistogramSnapshot;
+
+/**
+ * An immutable reading of every metric in {@link ChessMetrics}, with the derived rates (cache hit
+ * rate, search speed) computed from the raw counters.
+ */
+public final class MetricsSnapshot {
+  private final boolean enabled;
+  private final HistogramSnapshot modelMoveNanos;
+  private final HistogramSnapshot movesGenerated;
+  private final long makes;
+  private final long unmakes;
+  private final long cacheProbes;
+  private final long cacheHits;
+  private final long searchNodes;
+  private final long searchNanos;
+
+  MetricsSnapshot(boolean enabled, HistogramSnapshot modelMoveNanos,
+      HistogramSnapshot movesGenerated, long makes, long unmakes, long cacheProbes, long cacheHits,
+      long searchNodes, long searchNanos) {
+    this.enabled = enabled;
+    this.modelMoveNanos = Utils.nonNullConstructor(modelMoveNanos, "MetricsSnapshot",
+        "HistogramSnapshot");
+    this.movesGenerated = Utils.nonNullConstructor(movesGenerated, "MetricsSnapshot",
+        "HistogramSnapshot");
+    this.makes = makes;
+    this.unmakes = unmakes;
+    this.cacheProbes = cacheProbes;
+    this.cacheHits = cacheHits;
+    this.searchNodes = searchNodes;
+    this.searchNanos = searchNanos;
+  }
+
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  public HistogramSnapshot getModelMoveNanos() {
+    return this.modelMoveNanos;
+  }
+
+  public HistogramSnapshot getMovesGenerated() {
+    return this.movesGenerated;
+  }
+
+  public long getMakes() {
+    return this.makes;
+  }
+
+  public long getUnmakes() {
+    return this.unmakes;
+  }
+
+  public long getCacheProbes() {
+    return this.cacheProbes;
+  }
+
+  public long getCacheHits() {
+    return this.cacheHits;
+  }
+
+  /**
+   * The fraction of cache probes that hit, or 0 if there were none.
+   */
+  public double getCacheHitRate() {
+    return this.cacheProbes == 0 ? 0 : (double) this.cacheHits / this.cacheProbes;
+  }
+
+  public long getSearchNodes() {
+    return this.searchNodes;
+  }
+
+  /**
+   * The average search speed over every recorded search, or 0 if nothing has been searched.
+   */
+  public double getSearchNodesPerSecond() {
+    return this.searchNanos == 0 ? 0 : this.searchNodes * 1e9 / this.searchNanos;
+  }
+
+  @Override
+  public String toString() {
+    if (!this.enabled) {
+      return "metrics disabled (run with -Dchess.metrics=true)";
+    }
+    return Utils.println(this.modelMoveNanos.toString())
+        + Utils.println(this.movesGenerated.toString())
+        + Utils.println("make/unmake: " + this.makes + "/" + this.unmakes)
+        + Utils.println(String.format("cache: %d probes, %.1f%% hits", this.cacheProbes,
+        100 * this.getCacheHitRate()))
+        + String.format("search: %d nodes, %.0f nodes/sec", this.searchNodes,
+        this.getSearchNodesPerSecond());
+  }
+}
@@ -2,6 +2,7 @@ package model.piece;
 
 import model.Utils;
 import model.player.EChessPlayer;
+import model.posn.BoardGeometry;
 import model.posn.BoardPosn;
 
 public abstract class AChessPiece implements IChessPiece {
@@ -23,10 +24,25 @@ public abstract class AChessPiece implements IChessPiece {
   }
 
   public AChessPiece(EChessPlayer owner, int value, BoardPosn initialPosn) {
+    this(owner, value, initialPosn, BoardGeometry.STANDARD);
+  }
+
+  /**
+   * Creates a piece on its starting square, given from white's side: black's pieces start on the
+   * same column at the opposite end of the board.
+   *
+   * @param owner       the player the piece belongs to
+   * @param value       the piece's material value
+   * @param initialPosn white's starting square for the piece
+   * @param geometry    the board the piece is on
+   * @throws IllegalArgumentException if an argument is null or the square is off of the board
+   */
+  public AChessPiece(EChessPlayer owner, int value, BoardPosn initialPosn,
+      BoardGeometry geometry) {
     this(true, owner, value, initialPosn);
+    Utils.checkNotNull(geometry, "cannot place an AChessPiece on a null BoardGeometry");
     if (owner == EChessPlayer.BLACK) {
-      this.posn =
-          new BoardPosn(initialPosn.row(), BoardPosn.MAX_DIMENSION - initialPosn.col());
+      this.posn = geometry.mirror(initialPosn);
     }
   }
 
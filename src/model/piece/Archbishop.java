@@ -0,0 +1,26 @@
+package model.piece;
+
+import java.util.List;
+import model.player.EChessPlayer;
+import model.posn.BoardGeometry;
+import model.posn.BoardPosn;
+
+/**
+ * A piece from Capablanca chess that moves as either a bishop or a knight.
+ */
+public class Archbishop extends AChessPiece {
+
+  public Archbishop(EChessPlayer owner, BoardPosn initialPosn, BoardGeometry geometry) {
+    super(owner, 7, initialPosn, geometry);
+  }
+
+  @Override
+  public boolean canMoveTo(BoardPosn newPosition) {
+    return false;
+  }
+
+  @Override
+  public List<BoardPosn> getPossibleMoves() {
+    return null;
+  }
+}
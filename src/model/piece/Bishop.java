@@ -2,6 +2,7 @@ package model.piece;
 
 import java.util.List;
 import model.player.EChessPlayer;
+import model.posn.BoardGeometry;
 import model.posn.BoardPosn;
 
 public class Bishop extends AChessPiece {
@@ -16,6 +17,10 @@ public class Bishop extends AChessPiece {
     super(owner, 3, posn);
   }
 
+  public Bishop(EChessPlayer owner, BoardPosn initialPosn, BoardGeometry geometry) {
+    super(owner, 3, initialPosn, geometry);
+  }
+
   @Override
   public boolean canMoveTo(BoardPosn newPosition) {
     return false;
@@ -0,0 +1,26 @@
+package model.piece;
+
+import java.util.List;
+import model.player.EChessPlayer;
+import model.posn.BoardGeometry;
+import model.posn.BoardPosn;
+
+/**
+ * A piece from Capablanca chess that moves as either a rook or a knight.
+ */
+public class Chancellor extends AChessPiece {
+
+  public Chancellor(EChessPlayer owner, BoardPosn initialPosn, BoardGeometry geometry) {
+    super(owner, 8, initialPosn, geometry);
+  }
+
+  @Override
+  public boolean canMoveTo(BoardPosn newPosition) {
+    return false;
+  }
+
+  @Override
+  public List<BoardPosn> getPossibleMoves() {
+    return null;
+  }
+}
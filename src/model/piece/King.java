@@ -2,17 +2,22 @@ package model.piece;
 
 import java.util.List;
 import model.player.EChessPlayer;
+import model.posn.BoardGeometry;
 import model.posn.BoardPosn;
 
 public class King extends AChessPiece {
 
   public static final BoardPosn INITIAL_WHITE_POSN
-      = new BoardPosn(BoardPosn.MAX_DIMENSION, 5);
+      = new BoardPosn(BoardPosn.MAX_DIMENSION, 4);
 
   public King(EChessPlayer owner) {
     super(owner, AChessPiece.PIECE_MAX_VALUE, INITIAL_WHITE_POSN);
   }
 
+  public King(EChessPlayer owner, BoardPosn initialPosn, BoardGeometry geometry) {
+    super(owner, AChessPiece.PIECE_MAX_VALUE, initialPosn, geometry);
+  }
+
   @Override
   public boolean canMoveTo(BoardPosn newPosition) {
     return false;
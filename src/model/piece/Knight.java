@@ -3,6 +3,7 @@ package model.piece;
 import java.util.List;
 import model.piece.AChessPiece;
 import model.player.EChessPlayer;
+import model.posn.BoardGeometry;
 import model.posn.BoardPosn;
 
 public class Knight extends AChessPiece {
@@ -16,6 +17,10 @@ public class Knight extends AChessPiece {
     super(owner, 3, posn);
   }
 
+  public Knight(EChessPlayer owner, BoardPosn initialPosn, BoardGeometry geometry) {
+    super(owner, 3, initialPosn, geometry);
+  }
+
   @Override
   public boolean canMoveTo(BoardPosn newPosition) {
     return false;
@@ -2,6 +2,7 @@ package model.piece;
 
 import java.util.List;
 import model.player.EChessPlayer;
+import model.posn.BoardGeometry;
 import model.posn.BoardPosn;
 
 public class Queen extends AChessPiece {
@@ -13,6 +14,10 @@ public class Queen extends AChessPiece {
     super(owner, 9, INITIAL_WHITE_POSN);
   }
 
+  public Queen(EChessPlayer owner, BoardPosn initialPosn, BoardGeometry geometry) {
+    super(owner, 9, initialPosn, geometry);
+  }
+
 
   @Override
   public boolean canMoveTo(BoardPosn newPosition) {
@@ -0,0 +1,49 @@
+package model.player;
+
+/**
+ * The state of a game of chess: still being played, won by one of the players, or drawn.
+ */
+public enum EGameResult {
+  IN_PROGRESS("In progress"), WHITE_WINS("White wins"), BLACK_WINS("Black wins"),
+  DRAW_BY_STALEMATE("Draw by stalemate"), DRAW_BY_REPETITION("Draw by threefold repetition"),
+  DRAW_BY_FIFTY_MOVES("Draw by the fifty-move rule");
+
+  private final String name;
+
+  private EGameResult(String name) {
+    this.name = name;
+  }
+
+  /**
+   * The result of a game won by the given player.
+   */
+  public static EGameResult winFor(EChessPlayer winner) {
+    return winner == EChessPlayer.WHITE ? WHITE_WINS : BLACK_WINS;
+  }
+
+  public boolean isDraw() {
+    return this == DRAW_BY_STALEMATE || this == DRAW_BY_REPETITION || this == DRAW_BY_FIFTY_MOVES;
+  }
+
+  public boolean isOver() {
+    return this != IN_PROGRESS;
+  }
+
+  /**
+   * The player who won, or {@code null} if the game is drawn or still in progress.
+   */
+  public EChessPlayer getWinner() {
+    switch (this) {
+      case WHITE_WINS:
+        return EChessPlayer.WHITE;
+      case BLACK_WINS:
+        return EChessPlayer.BLACK;
+      default:
+        return null;
+    }
+  }
+
+  public String toString() {
+    return this.name;
+  }
+}
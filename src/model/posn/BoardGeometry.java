@@ -0,0 +1,159 @@
+package model.posn;
+
+import model.Utils;
+
+/**
+ * <p>The shape of a rectangular board: how many rows (ranks) and columns (files) it has. Rows are
+ * numbered from 0 at black's back rank, and columns from 0 at the a-file, as in {@link BoardPosn}.
+ * Squares are indexed as {@code row * cols + col}.</p>
+ * <p>Supports:</p>
+ * <ul>
+ *   <li>
+ *     The standard 8x8 board, which the 64-bit {@link model.board.Position} is built for
+ *   </li>
+ *   <li>
+ *     Larger variant boards such as 10x8 Capablanca chess and 10x10, up to {@link #MAX_SQUARES}
+ *     squares, which {@link model.board.WidePosition} plays on
+ *   </li>
+ * </ul>
+ */
+public final class BoardGeometry {
+
+  public static final int MIN_DIMENSION = 4;
+  public static final int MAX_DIMENSION = 16;
+  public static final int MAX_SQUARES = 128;
+
+  public static final BoardGeometry STANDARD =
+      new BoardGeometry(BoardPosn.MAX_DIMENSION + 1, BoardPosn.MAX_DIMENSION + 1);
+  // ten files and eight ranks
+  public static final BoardGeometry CAPABLANCA = new BoardGeometry(8, 10);
+  public static final BoardGeometry TEN_BY_TEN = new BoardGeometry(10, 10);
+
+  private final int rows;
+  private final int cols;
+
+  /**
+   * Creates a board geometry.
+   *
+   * @param rows the number of rows (ranks)
+   * @param cols the number of columns (files)
+   * @throws IllegalArgumentException if either dimension is not in
+   *                                  {@code [MIN_DIMENSION, MAX_DIMENSION]} or the board has more
+   *                                  than {@link #MAX_SQUARES} squares
+   */
+  public BoardGeometry(int rows, int cols)
+      throws IllegalArgumentException {
+    this.rows = Utils.checkIntBetween(rows, MIN_DIMENSION, MAX_DIMENSION);
+    this.cols = Utils.checkIntBetween(cols, MIN_DIMENSION, MAX_DIMENSION);
+    if (rows * cols > MAX_SQUARES) {
+      throw new IllegalArgumentException("a " + this + " board has more than " + MAX_SQUARES
+          + " squares");
+    }
+  }
+
+  public int getRows() {
+    return this.rows;
+  }
+
+  public int getCols() {
+    return this.cols;
+  }
+
+  public int getNumSquares() {
+    return this.rows * this.cols;
+  }
+
+  /**
+   * Whether this is the standard 8x8 board.
+   */
+  public boolean isStandard() {
+    return this.equals(STANDARD);
+  }
+
+  public boolean contains(int row, int col) {
+    return row >= 0 && row < this.rows && col >= 0 && col < this.cols;
+  }
+
+  public boolean contains(BoardPosn posn) {
+    return posn != null && this.contains(posn.row(), posn.col());
+  }
+
+  /**
+   * Checks that a position lies on this board.
+   *
+   * @param posn the position to check
+   * @return the position
+   * @throws IllegalArgumentException if the position is null or off of the board
+   */
+  public BoardPosn checkContains(BoardPosn posn)
+      throws IllegalArgumentException {
+    Utils.checkNotNull(posn, "cannot check a null BoardPosn");
+    if (!this.contains(posn)) {
+      throw new IllegalArgumentException("(" + posn.row() + ", " + posn.col()
+          + ") is off of a " + this + " board");
+    }
+    return posn;
+  }
+
+  /**
+   * The square index of a position on this board.
+   *
+   * @throws IllegalArgumentException if the position is null or off of the board
+   */
+  public int squareOf(BoardPosn posn)
+      throws IllegalArgumentException {
+    this.checkContains(posn);
+    return this.squareOf(posn.row(), posn.col());
+  }
+
+  public int squareOf(int row, int col) {
+    return row * this.cols + col;
+  }
+
+  public BoardPosn posnOf(int square) {
+    return new BoardPosn(this.rowOf(square), this.colOf(square), this);
+  }
+
+  public int rowOf(int square) {
+    return square / this.cols;
+  }
+
+  public int colOf(int square) {
+    return square % this.cols;
+  }
+
+  /**
+   * The same column on the opposite side of the board, e.g. a white piece's starting square
+   * seen from black's side.
+   */
+  public BoardPosn mirror(BoardPosn posn)
+      throws IllegalArgumentException {
+    this.checkContains(posn);
+    return new BoardPosn(this.rows - 1 - posn.row(), posn.col(), this);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof BoardGeometry)) {
+      return false;
+    }
+    BoardGeometry that = (BoardGeometry) o;
+    return this.rows == that.rows && this.cols == that.cols;
+  }
+
+  @Override
+  public int hashCode() {
+    return this.rows * (MAX_DIMENSION + 1) + this.cols;
+  }
+
+  /**
+   * Files by ranks, e.g. {@code 10x8} for Capablanca chess.
+   */
+  @Override
+  public String toString() {
+    return this.cols + "x" + this.rows;
+  }
+}
@@ -3,12 +3,16 @@ package model.posn;
 import model.Utils;
 
 public class BoardPosn {
+  /**
+   * The largest row or column on the standard 8x8 board. Other boards are described by a
+   * {@link BoardGeometry}.
+   */
   public static final int MAX_DIMENSION = 7;
   private final int row;
   private final int col;
 
   /**
-   * INVARIANT: 0 < row, col < boardHeight, BoardWidth
+   * INVARIANT: 0 <= row, col
    * @param row
    * @param col
    */
@@ -17,6 +21,21 @@ public class BoardPosn {
     this.col = Utils.checkNonNegativeInt(col);
   }
 
+  /**
+   * Creates a position that must lie on the given board.
+   *
+   * @param row      the row, from 0 at black's back rank
+   * @param col      the column, from 0 at the a-file
+   * @param geometry the board the position is on
+   * @throws IllegalArgumentException if the geometry is null or the position is off of it
+   */
+  public BoardPosn(int row, int col, BoardGeometry geometry)
+      throws IllegalArgumentException {
+    Utils.checkNotNull(geometry, "cannot place a BoardPosn on a null BoardGeometry");
+    this.row = Utils.checkIntBetween(row, 0, geometry.getRows() - 1);
+    this.col = Utils.checkIntBetween(col, 0, geometry.getCols() - 1);
+  }
+
   public int col() {
     return this.col;
   }
@@ -25,4 +44,12 @@ public class BoardPosn {
     return this.row;
   }
 
+  /**
+   * Whether this position lies on the given board.
+   */
+  public boolean isOn(BoardGeometry geometry) {
+    return Utils.checkNotNull(geometry, "cannot check against a null BoardGeometry")
+        .contains(this);
+  }
+
 }
@@ -0,0 +1,73 @@
+package model.tablebase;
+
+import model.Utils;
+import model.bitboard.Bitboards;
+import model.piece.IChessPiece;
+import model.piece.Pawn;
+import model.piece.Queen;
+import model.piece.Rook;
+
+/**
+ * The small endgames that can be solved into a {@link Tablebase}. Each endgame is a king plus a
+ * single extra piece belonging to the strong side, against a lone king.
+ */
+public enum EEndgame {
+  KQK("KQK") {
+    @Override
+    public long attacks(int square, long occupied) {
+      return Bitboards.queenAttacks(square, occupied);
+    }
+  },
+  KRK("KRK") {
+    @Override
+    public long attacks(int square, long occupied) {
+      return Bitboards.rookAttacks(square, occupied);
+    }
+  },
+  KPK("KPK") {
+    @Override
+    public long attacks(int square, long occupied) {
+      return Bitboards.pawnAttacks(true, square);
+    }
+  };
+
+  private final String name;
+
+  private EEndgame(String name) {
+    this.name = name;
+  }
+
+  /**
+   * The squares attacked by this endgame's extra piece, assuming it belongs to white (the strong
+   * side in every table).
+   *
+   * @param square   the square the piece stands on
+   * @param occupied every occupied square on the board
+   * @return the attacked squares
+   */
+  public abstract long attacks(int square, long occupied);
+
+  /**
+   * Finds the endgame in which the given piece is the strong side's only piece besides its king.
+   *
+   * @param extraPiece the piece accompanying the strong side's king
+   * @return the matching endgame
+   * @throws IllegalArgumentException if the piece is null or has no supported endgame
+   */
+  public static EEndgame forPiece(IChessPiece extraPiece)
+      throws IllegalArgumentException {
+    Utils.checkNotNull(extraPiece, "cannot find the endgame of a null piece");
+    if (extraPiece instanceof Queen) {
+      return KQK;
+    } else if (extraPiece instanceof Rook) {
+      return KRK;
+    } else if (extraPiece instanceof Pawn) {
+      return KPK;
+    }
+    throw new IllegalArgumentException("no tablebase endgame for piece " + extraPiece);
+  }
+
+  public String toString() {
+    return this.name;
+  }
+}
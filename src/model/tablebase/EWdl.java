@@ -0,0 +1,19 @@
+package model.tablebase;
+
+/**
+ * The game-theoretic value of an endgame position, from the perspective of the player whose turn
+ * it is to move.
+ */
+public enum EWdl {
+  DRAW("Draw"), WIN("Win"), LOSS("Loss");
+
+  private final String name;
+
+  private EWdl(String name) {
+    this.name = name;
+  }
+
+  public String toString() {
+    return this.name;
+  }
+}
@@ -0,0 +1,243 @@
+package model.tablebase;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import model.Utils;
+import model.bitboard.Bitboards;
+import model.player.EChessPlayer;
+import model.posn.BoardPosn;
+
+/**
+ * <p>A solved {@link EEndgame}: the win/draw/loss value and distance-to-mate of every position
+ * with the strong side's king and extra piece against a lone king.</p>
+ * <p>Positions are addressed by a perfect index over
+ * {@code (side to move, strong king, weak king, extra piece)}, and each entry is bit-packed into
+ * {@link #getBitsPerEntry()} bits: two bits of result code followed by the distance-to-mate in
+ * plies. Probing is a constant-time index computation plus one or two word reads, and never
+ * allocates, so it is cheap enough to call at the leaves of a search.</p>
+ * <p>Tables are always stored with white as the strong side; probing with black as the strong
+ * side mirrors the board.</p>
+ */
+public final class Tablebase {
+
+  /**
+   * The number of positions indexed by every table.
+   */
+  public static final int NUM_POSITIONS = 2 * Bitboards.NUM_SQUARES * Bitboards.NUM_SQUARES
+      * Bitboards.NUM_SQUARES;
+
+  /**
+   * The longest distance-to-mate, in plies, a table may hold. The longest wins of the supported
+   * endgames are well within it, and {@link model.engine.Search} keeps this many plies of room in
+   * its mate scores.
+   */
+  public static final int MAX_DISTANCE_TO_MATE = 127;
+
+  // the two-bit result codes stored in each entry
+  static final int CODE_DRAW = 0;
+  static final int CODE_WIN = 1;
+  static final int CODE_LOSS = 2;
+  static final int CODE_ILLEGAL = 3;
+
+  private static final int FILE_MAGIC = 0x43544231; // "CTB1"
+
+  private final EEndgame endgame;
+  private final int bitsPerEntry;
+  private final int entryMask;
+  private final int maxDistanceToMate;
+  private final long[] packed;
+
+  Tablebase(EEndgame endgame, int bitsPerEntry, int maxDistanceToMate, long[] packed) {
+    this.endgame = Utils.nonNullConstructor(endgame, "Tablebase", "EEndgame");
+    this.bitsPerEntry = Utils.checkIntBetween(bitsPerEntry, 3, 31);
+    this.entryMask = (1 << bitsPerEntry) - 1;
+    this.maxDistanceToMate = Utils.checkIntBetween(maxDistanceToMate, 0, MAX_DISTANCE_TO_MATE);
+    this.packed = Utils.nonNullConstructor(packed, "Tablebase", "long[]");
+    if (packed.length != wordsFor(bitsPerEntry)) {
+      throw new IllegalArgumentException("expected " + wordsFor(bitsPerEntry)
+          + " packed words for " + bitsPerEntry + " bits per entry, got " + packed.length);
+    }
+  }
+
+  /**
+   * The perfect index of a position, with white as the strong side.
+   *
+   * @param strongToMove whether the strong side is to move
+   * @param strongKing   the square of the strong side's king
+   * @param weakKing     the square of the weak side's king
+   * @param piece        the square of the strong side's extra piece
+   * @return an index in {@code [0, NUM_POSITIONS)} unique to the position
+   */
+  public static int indexOf(boolean strongToMove, int strongKing, int weakKing, int piece) {
+    return (((strongToMove ? 0 : 1) * Bitboards.NUM_SQUARES + strongKing)
+        * Bitboards.NUM_SQUARES + weakKing) * Bitboards.NUM_SQUARES + piece;
+  }
+
+  /**
+   * Looks up a position. Squares are given from the board's point of view; when black is the strong
+   * side they are mirrored onto the white-strong table.
+   *
+   * @param strongSide the player owning the extra piece
+   * @param toMove     the player whose turn it is
+   * @param strongKing the square of the strong side's king
+   * @param weakKing   the square of the weak side's king
+   * @param piece      the square of the strong side's extra piece
+   * @return the packed probe result, to be read with {@link #wdlOf(int)} and
+   *         {@link #distanceToMateOf(int)}
+   */
+  public int probe(EChessPlayer strongSide, EChessPlayer toMove, int strongKing, int weakKing,
+      int piece) {
+    if (strongSide == EChessPlayer.BLACK) {
+      strongKing = Bitboards.flipRow(strongKing);
+      weakKing = Bitboards.flipRow(weakKing);
+      piece = Bitboards.flipRow(piece);
+    }
+    return this.entry(indexOf(strongSide == toMove, strongKing, weakKing, piece));
+  }
+
+  public int probe(EChessPlayer strongSide, EChessPlayer toMove, BoardPosn strongKing,
+      BoardPosn weakKing, BoardPosn piece)
+      throws IllegalArgumentException {
+    return this.probe(strongSide, toMove, Bitboards.squareOf(strongKing),
+        Bitboards.squareOf(weakKing), Bitboards.squareOf(piece));
+  }
+
+  /**
+   * Reads the value of a probe result, from the perspective of the side to move.
+   *
+   * @param probeResult a result returned by {@link #probe}
+   * @return whether the side to move wins, draws or loses with perfect play
+   * @throws IllegalArgumentException if the probed position could not arise in a game
+   */
+  public static EWdl wdlOf(int probeResult)
+      throws IllegalArgumentException {
+    switch (probeResult & 3) {
+      case CODE_WIN:
+        return EWdl.WIN;
+      case CODE_LOSS:
+        return EWdl.LOSS;
+      case CODE_DRAW:
+        return EWdl.DRAW;
+      default:
+        throw new IllegalArgumentException("probed an illegal tablebase position");
+    }
+  }
+
+  /**
+   * The number of plies until mate with perfect play, or 0 for drawn positions.
+   */
+  public static int distanceToMateOf(int probeResult) {
+    return probeResult >>> 2;
+  }
+
+  public static boolean isLegal(int probeResult) {
+    return (probeResult & 3) != CODE_ILLEGAL;
+  }
+
+  public EEndgame getEndgame() {
+    return this.endgame;
+  }
+
+  public int getBitsPerEntry() {
+    return this.bitsPerEntry;
+  }
+
+  public int getMaxDistanceToMate() {
+    return this.maxDistanceToMate;
+  }
+
+  /**
+   * The size of the packed table in bytes.
+   */
+  public long getSizeInBytes() {
+    return (long) this.packed.length * Long.BYTES;
+  }
+
+  int entry(int index) {
+    long bitIndex = (long) index * this.bitsPerEntry;
+    int word = (int) (bitIndex >>> 6);
+    int shift = (int) (bitIndex & 63);
+
+    long value = this.packed[word] >>> shift;
+    if (shift + this.bitsPerEntry > Long.SIZE) {
+      value |= this.packed[word + 1] << (Long.SIZE - shift);
+    }
+    return (int) value & this.entryMask;
+  }
+
+  static int wordsFor(int bitsPerEntry) {
+    return (int) (((long) NUM_POSITIONS * bitsPerEntry + Long.SIZE - 1) / Long.SIZE);
+  }
+
+  static void pack(long[] packed, int bitsPerEntry, int index, int entry) {
+    long bitIndex = (long) index * bitsPerEntry;
+    int word = (int) (bitIndex >>> 6);
+    int shift = (int) (bitIndex & 63);
+
+    packed[word] |= (long) entry << shift;
+    if (shift + bitsPerEntry > Long.SIZE) {
+      packed[word + 1] |= (long) entry >>> (Long.SIZE - shift);
+    }
+  }
+
+  /**
+   * Writes this table to a compact binary file that can be loaded again with {@link #read(Path)}.
+   *
+   * @param file the file to write to, which is overwritten if it exists
+   * @throws IOException if the file cannot be written
+   */
+  public void write(Path file)
+      throws IOException {
+    Utils.checkNotNull(file, "cannot write a tablebase to a null path");
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(file)))) {
+      out.writeInt(FILE_MAGIC);
+      out.writeUTF(this.endgame.name());
+      out.writeByte(this.bitsPerEntry);
+      out.writeShort(this.maxDistanceToMate);
+      out.writeInt(this.packed.length);
+      for (long word : this.packed) {
+        out.writeLong(word);
+      }
+    }
+  }
+
+  /**
+   * Loads a table previously written by {@link #write(Path)}.
+   *
+   * @param file the file to read
+   * @return the loaded table
+   * @throws IOException if the file cannot be read or is not a tablebase file
+   */
+  public static Tablebase read(Path file)
+      throws IOException {
+    Utils.checkNotNull(file, "cannot read a tablebase from a null path");
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != FILE_MAGIC) {
+        throw new IOException(file + " is not a tablebase file");
+      }
+      EEndgame endgame = EEndgame.valueOf(in.readUTF());
+      int bitsPerEntry = in.readUnsignedByte();
+      int maxDistanceToMate = in.readUnsignedShort();
+      long[] packed = new long[in.readInt()];
+      for (int word = 0; word < packed.length; word++) {
+        packed[word] = in.readLong();
+      }
+      return new Tablebase(endgame, bitsPerEntry, maxDistanceToMate, packed);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("corrupt tablebase file " + file, e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.endgame + " tablebase (" + this.bitsPerEntry + " bits/entry, max DTM "
+        + this.maxDistanceToMate + " plies)";
+  }
+}
@@ -0,0 +1,327 @@
+package model.tablebase;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import model.Utils;
+import model.bitboard.Bitboards;
+import model.posn.BoardPosn;
+
+/**
+ * <p>Solves {@link EEndgame}s into {@link Tablebase}s by retrograde analysis.</p>
+ * <p>Every index of the table is first classified as illegal, checkmate, stalemate or unknown.
+ * The generator then works backwards from the mates one ply at a time: on pass {@code n} a position
+ * becomes a win in {@code n} if some move reaches a loss in {@code n - 1}, and a loss in {@code n}
+ * if every move reaches a win of at most {@code n - 1}. Positions still unknown when a pass changes
+ * nothing are draws. Each pass is spread across a {@link ForkJoinPool}; results written during a
+ * pass are never read by the same pass, so the outcome does not depend on thread scheduling.</p>
+ * <p>Tables whose pawn can promote ({@link EEndgame#KPK}) read the queen and rook tables, which are
+ * generated first and cached on this generator.</p>
+ */
+public class TablebaseGenerator {
+
+  // working codes, alongside Tablebase.CODE_WIN/CODE_LOSS/CODE_ILLEGAL
+  private static final int UNKNOWN = 0;
+  private static final short FIXED_DRAW = 4;
+
+  private static final int PAWN_START_ROW = BoardPosn.MAX_DIMENSION - 1;
+
+  // the most moves any side has in the supported endgames is a queen plus a king move
+  private static final int MAX_SUCCESSORS = 40;
+
+  private final ForkJoinPool pool;
+  private final Map<EEndgame, Tablebase> solved;
+  private final ThreadLocal<int[]> successorBuffers;
+
+  /**
+   * Creates a generator that solves tables using the given number of worker threads.
+   *
+   * @param parallelism the number of worker threads
+   * @throws IllegalArgumentException if {@code parallelism} is not positive
+   */
+  public TablebaseGenerator(int parallelism)
+      throws IllegalArgumentException {
+    this.pool = new ForkJoinPool(Utils.checkIntBetween(parallelism, 1, Short.MAX_VALUE));
+    this.solved = new EnumMap<>(EEndgame.class);
+    this.successorBuffers = ThreadLocal.withInitial(() -> new int[MAX_SUCCESSORS]);
+  }
+
+  /**
+   * Creates a generator that uses every available core.
+   */
+  public TablebaseGenerator() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Solves the given endgame, reusing any table this generator has already solved.
+   *
+   * @param endgame the endgame to solve
+   * @return the solved table
+   * @throws IllegalArgumentException if the endgame is null
+   */
+  public synchronized Tablebase generate(EEndgame endgame)
+      throws IllegalArgumentException {
+    Utils.checkNotNull(endgame, "cannot generate a tablebase for a null endgame");
+
+    Tablebase table = this.solved.get(endgame);
+    if (table == null) {
+      table = new Solver(endgame).solve();
+      this.solved.put(endgame, table);
+    }
+    return table;
+  }
+
+  /**
+   * Releases the worker threads of this generator.
+   */
+  public void shutdown() {
+    this.pool.shutdown();
+  }
+
+  /**
+   * The working state for solving a single table.
+   */
+  private final class Solver {
+    private final EEndgame endgame;
+    // each position as distance << 3 | code, written in one store so that concurrent readers
+    // never see a code without its distance
+    private final short[] values;
+    private final Tablebase promoteToQueen;
+    private final Tablebase promoteToRook;
+
+    private Solver(EEndgame endgame) {
+      this.endgame = endgame;
+      this.values = new short[Tablebase.NUM_POSITIONS];
+      if (endgame == EEndgame.KPK) {
+        this.promoteToQueen = generate(EEndgame.KQK);
+        this.promoteToRook = generate(EEndgame.KRK);
+      } else {
+        this.promoteToQueen = null;
+        this.promoteToRook = null;
+      }
+    }
+
+    private Tablebase solve() {
+      this.inParallel(this::classify);
+
+      int longestConversion = 0;
+      if (this.promoteToQueen != null) {
+        longestConversion = Math.max(this.promoteToQueen.getMaxDistanceToMate(),
+            this.promoteToRook.getMaxDistanceToMate());
+      }
+
+      LongAdder changed = new LongAdder();
+      int ply = 1;
+      do {
+        changed.reset();
+        final int pass = ply;
+        this.inParallel(index -> {
+          if (this.values[index] == UNKNOWN && this.resolve(index, pass)) {
+            changed.increment();
+          }
+        });
+        ply++;
+      } while (changed.sum() > 0 || ply <= longestConversion + 1);
+
+      return this.pack();
+    }
+
+    private void inParallel(IntConsumer action) {
+      try {
+        pool.submit(() -> IntStream.range(0, Tablebase.NUM_POSITIONS).parallel().forEach(action))
+            .get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("interrupted while generating " + this.endgame, e);
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("failed to generate " + this.endgame, e.getCause());
+      }
+    }
+
+    /**
+     * Marks the position at {@code index} as illegal, mate, stalemate or still unknown.
+     */
+    private void classify(int index) {
+      boolean strongToMove = index < Tablebase.NUM_POSITIONS / 2;
+      int piece = index & 63;
+      int weakKing = (index >>> 6) & 63;
+      int strongKing = (index >>> 12) & 63;
+
+      if (!this.isLegal(strongToMove, strongKing, weakKing, piece)) {
+        this.values[index] = Tablebase.CODE_ILLEGAL;
+      } else if (this.successors(index, successorBuffers.get()) == 0) {
+        boolean mated = !strongToMove && this.weakInCheck(strongKing, weakKing, piece);
+        this.values[index] = mated ? Tablebase.CODE_LOSS : FIXED_DRAW;
+      }
+    }
+
+    /**
+     * Tries to resolve an unknown position on the given pass.
+     *
+     * @return whether the position was resolved
+     */
+    private boolean resolve(int index, int pass) {
+      int[] successors = successorBuffers.get();
+      int numSuccessors = this.successors(index, successors);
+
+      int fastestWin = Integer.MAX_VALUE;
+      int slowestLoss = -1;
+      boolean allMovesLose = true;
+
+      for (int i = 0; i < numSuccessors; i++) {
+        int code = successors[i] & 7;
+        int distance = (successors[i] >>> 3) + 1;
+        if (code == Tablebase.CODE_LOSS && distance <= pass) {
+          fastestWin = Math.min(fastestWin, distance);
+        } else if (code == Tablebase.CODE_WIN && distance <= pass) {
+          slowestLoss = Math.max(slowestLoss, distance);
+        } else {
+          allMovesLose = false;
+        }
+      }
+
+      if (fastestWin != Integer.MAX_VALUE) {
+        this.values[index] = (short) (fastestWin << 3 | Tablebase.CODE_WIN);
+        return true;
+      } else if (allMovesLose) {
+        this.values[index] = (short) (slowestLoss << 3 | Tablebase.CODE_LOSS);
+        return true;
+      }
+      return false;
+    }
+
+    /**
+     * Writes the value of every position reachable in one legal move from {@code index} into
+     * {@code out}, each as {@code distance << 3 | code}.
+     *
+     * @return the number of legal moves
+     */
+    private int successors(int index, int[] out) {
+      boolean strongToMove = index < Tablebase.NUM_POSITIONS / 2;
+      int piece = index & 63;
+      int weakKing = (index >>> 6) & 63;
+      int strongKing = (index >>> 12) & 63;
+      int count = 0;
+
+      if (strongToMove) {
+        long kingTargets = Bitboards.kingAttacks(strongKing)
+            & ~Bitboards.kingAttacks(weakKing)
+            & ~Bitboards.bit(weakKing)
+            & ~Bitboards.bit(piece);
+        for (long targets = kingTargets; targets != 0; targets &= targets - 1) {
+          int to = Bitboards.lowestSquare(targets);
+          out[count++] = this.valueAt(Tablebase.indexOf(false, to, weakKing, piece));
+        }
+
+        long occupied = Bitboards.bit(strongKing) | Bitboards.bit(weakKing) | Bitboards.bit(piece);
+        if (this.endgame == EEndgame.KPK) {
+          // white pawns advance towards row 0
+          int oneStep = piece - Bitboards.BOARD_WIDTH;
+          if (!Bitboards.contains(occupied, oneStep)) {
+            count = this.pawnPush(strongKing, weakKing, oneStep, out, count);
+            int twoSteps = oneStep - Bitboards.BOARD_WIDTH;
+            if (Bitboards.rowOf(piece) == PAWN_START_ROW
+                && !Bitboards.contains(occupied, twoSteps)) {
+              count = this.pawnPush(strongKing, weakKing, twoSteps, out, count);
+            }
+          }
+        } else {
+          long pieceTargets = this.endgame.attacks(piece, occupied)
+              & ~Bitboards.bit(strongKing)
+              & ~Bitboards.bit(weakKing);
+          for (long targets = pieceTargets; targets != 0; targets &= targets - 1) {
+            int to = Bitboards.lowestSquare(targets);
+            out[count++] = this.valueAt(Tablebase.indexOf(false, strongKing, weakKing, to));
+          }
+        }
+      } else {
+        long guarded = Bitboards.kingAttacks(strongKing);
+        // sliders see through the square the weak king is leaving
+        long attacked = guarded
+            | this.endgame.attacks(piece, Bitboards.bit(strongKing) | Bitboards.bit(piece));
+        long kingTargets = Bitboards.kingAttacks(weakKing) & ~Bitboards.bit(strongKing);
+
+        for (long targets = kingTargets; targets != 0; targets &= targets - 1) {
+          int to = Bitboards.lowestSquare(targets);
+          if (to == piece) {
+            if (!Bitboards.contains(guarded, to)) {
+              // capturing the last piece leaves two bare kings
+              out[count++] = FIXED_DRAW;
+            }
+          } else if (!Bitboards.contains(attacked, to)) {
+            out[count++] = this.valueAt(Tablebase.indexOf(true, strongKing, to, piece));
+          }
+        }
+      }
+
+      return count;
+    }
+
+    private int pawnPush(int strongKing, int weakKing, int to, int[] out, int count) {
+      if (Bitboards.rowOf(to) != 0) {
+        out[count++] = this.valueAt(Tablebase.indexOf(false, strongKing, weakKing, to));
+      } else {
+        int promotionIndex = Tablebase.indexOf(false, strongKing, weakKing, to);
+        out[count++] = fromEntry(this.promoteToQueen.entry(promotionIndex));
+        out[count++] = fromEntry(this.promoteToRook.entry(promotionIndex));
+      }
+      return count;
+    }
+
+    private int valueAt(int index) {
+      return this.values[index];
+    }
+
+    private boolean isLegal(boolean strongToMove, int strongKing, int weakKing, int piece) {
+      if (strongKing == weakKing || piece == strongKing || piece == weakKing) {
+        return false;
+      }
+      if (Bitboards.contains(Bitboards.kingAttacks(strongKing), weakKing)) {
+        return false;
+      }
+      if (this.endgame == EEndgame.KPK
+          && (Bitboards.rowOf(piece) == 0 || Bitboards.rowOf(piece) == BoardPosn.MAX_DIMENSION)) {
+        return false;
+      }
+      // the side that just moved cannot have left its king in check
+      return !strongToMove || !this.weakInCheck(strongKing, weakKing, piece);
+    }
+
+    private boolean weakInCheck(int strongKing, int weakKing, int piece) {
+      long occupied = Bitboards.bit(strongKing) | Bitboards.bit(weakKing) | Bitboards.bit(piece);
+      return Bitboards.contains(this.endgame.attacks(piece, occupied), weakKing);
+    }
+
+    private Tablebase pack() {
+      int maxDistance = 0;
+      for (int index = 0; index < Tablebase.NUM_POSITIONS; index++) {
+        maxDistance = Math.max(maxDistance, this.values[index] >>> 3);
+      }
+
+      int bitsPerEntry = 2 + Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(maxDistance));
+      long[] packed = new long[Tablebase.wordsFor(bitsPerEntry)];
+      for (int index = 0; index < Tablebase.NUM_POSITIONS; index++) {
+        int code = this.values[index] & 7;
+        if (code == FIXED_DRAW) {
+          code = Tablebase.CODE_DRAW;
+        }
+        Tablebase.pack(packed, bitsPerEntry, index, (this.values[index] >>> 3) << 2 | code);
+      }
+
+      return new Tablebase(this.endgame, bitsPerEntry, maxDistance, packed);
+    }
+  }
+
+  /**
+   * Converts a probe result of another table into a successor value of the table being solved.
+   */
+  private static int fromEntry(int entry) {
+    int code = entry & 3;
+    return Tablebase.distanceToMateOf(entry) << 3 | (code == Tablebase.CODE_DRAW ? FIXED_DRAW : code);
+  }
+}
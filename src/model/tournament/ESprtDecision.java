@@ -0,0 +1,23 @@
+package model.tournament;
+
+/**
+ * The state of a sequential probability ratio test after some number of games.
+ */
+public enum ESprtDecision {
+  CONTINUE("Inconclusive"), ACCEPT_H0("H0 accepted: no improvement"),
+  ACCEPT_H1("H1 accepted: improvement");
+
+  private final String name;
+
+  private ESprtDecision(String name) {
+    this.name = name;
+  }
+
+  public boolean isFinal() {
+    return this != CONTINUE;
+  }
+
+  public String toString() {
+    return this.name;
+  }
+}
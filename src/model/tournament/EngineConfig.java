@@ -0,0 +1,54 @@
+package model.tournament;
+
+import model.Utils;
+import model.engine.Search;
+import model.engine.SearchLimits;
+import model.engine.TranspositionTable;
+
+/**
+ * One side of a {@link Tournament}: a named engine setup and the budget it searches each move
+ * with. Giving both sides the same node budget makes results independent of machine load.
+ */
+public final class EngineConfig {
+
+  private final String name;
+  private final SearchLimits limits;
+  private final int log2TableEntries;
+
+  /**
+   * Creates an engine configuration.
+   *
+   * @param name             a name to report results under
+   * @param limits           the budget for each move
+   * @param log2TableEntries the base-2 logarithm of the transposition table size
+   * @throws IllegalArgumentException if the name or limits are null, or the table size is outside
+   *                                  the range {@link TranspositionTable} supports
+   */
+  public EngineConfig(String name, SearchLimits limits, int log2TableEntries)
+      throws IllegalArgumentException {
+    this.name = Utils.nonNullConstructor(name, "EngineConfig", "String");
+    this.limits = Utils.nonNullConstructor(limits, "EngineConfig", "SearchLimits");
+    this.log2TableEntries = Utils.checkIntBetween(log2TableEntries,
+        TranspositionTable.MIN_LOG2_ENTRIES, TranspositionTable.MAX_LOG2_ENTRIES);
+  }
+
+  public String getName() {
+    return this.name;
+  }
+
+  public SearchLimits getLimits() {
+    return this.limits;
+  }
+
+  /**
+   * Creates a fresh search set up as this configuration describes.
+   */
+  public Search createSearch() {
+    return new Search(this.log2TableEntries);
+  }
+
+  @Override
+  public String toString() {
+    return this.name + " (" + this.limits + ")";
+  }
+}
@@ -0,0 +1,96 @@
+package model.tournament;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import model.Utils;
+import model.board.Position;
+
+/**
+ * A list of starting positions for tournament games, read from an EPD (Extended Position
+ * Description) file. Each EPD line starts with the first four FEN fields; any operations after
+ * them (e.g. {@code bm}, {@code id}) are ignored.
+ */
+public final class OpeningBook {
+
+  private final List<String> fens;
+
+  /**
+   * Creates a book of the given positions.
+   *
+   * @param fens the starting positions in FEN
+   * @throws IllegalArgumentException if the list is null or empty, or a position is malformed
+   */
+  public OpeningBook(List<String> fens)
+      throws IllegalArgumentException {
+    Utils.nonNullConstructor(fens, "OpeningBook", "List<String>");
+    if (fens.isEmpty()) {
+      throw new IllegalArgumentException("cannot construct an OpeningBook with no openings");
+    }
+    for (String fen : fens) {
+      Position.fromFen(fen);
+    }
+    this.fens = Collections.unmodifiableList(new ArrayList<>(fens));
+  }
+
+  /**
+   * Parses EPD lines, skipping blank lines and lines starting with {@code #}.
+   *
+   * @param lines the lines of an EPD file
+   * @return a book of the positions described
+   * @throws IllegalArgumentException if there are no positions or a position is malformed
+   */
+  public static OpeningBook fromEpdLines(List<String> lines)
+      throws IllegalArgumentException {
+    Utils.checkNotNull(lines, "cannot parse null EPD lines");
+    List<String> fens = new ArrayList<>();
+    for (String line : lines) {
+      String trimmed = line.trim();
+      if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+        continue;
+      }
+      String[] fields = trimmed.split("\\s+");
+      if (fields.length < 4) {
+        throw new IllegalArgumentException("EPD line needs at least 4 fields: " + line);
+      }
+      fens.add(fields[0] + " " + fields[1] + " " + fields[2] + " " + fields[3] + " 0 1");
+    }
+    return new OpeningBook(fens);
+  }
+
+  /**
+   * Reads an EPD file.
+   *
+   * @param file the file to read
+   * @return a book of the positions in the file
+   * @throws IOException              if the file cannot be read
+   * @throws IllegalArgumentException if the file has no positions or one is malformed
+   */
+  public static OpeningBook fromEpd(Path file)
+      throws IOException, IllegalArgumentException {
+    Utils.checkNotNull(file, "cannot read an EPD file from a null path");
+    return fromEpdLines(Files.readAllLines(file, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * A book with only the standard starting position.
+   */
+  public static OpeningBook startingPosition() {
+    return new OpeningBook(Collections.singletonList(Position.START_FEN));
+  }
+
+  public int size() {
+    return this.fens.size();
+  }
+
+  /**
+   * The opening for the given game pair, cycling through the book.
+   */
+  public String get(int index) {
+    return this.fens.get(Math.floorMod(index, this.fens.size()));
+  }
+}
@@ -0,0 +1,108 @@
+package model.tournament;
+
+/**
+ * <p>A sequential probability ratio test between two Elo hypotheses: H0, that the first engine is
+ * {@code elo0} stronger than the second, and H1, that it is {@code elo1} stronger. After each game
+ * the log-likelihood ratio (LLR) of the results so far is compared against bounds derived from the
+ * accepted error rates, so a clear difference is detected after far fewer games than a fixed-length
+ * match would need.</p>
+ * <p>The LLR uses the usual normal approximation over win/draw/loss counts: with score {@code s}
+ * and per-game score variance {@code v} over {@code n} games,
+ * {@code LLR = n (s1 - s0) (2s - s0 - s1) / (2v)}, where {@code s0} and {@code s1} are the
+ * expected scores under each hypothesis. Half a game of each outcome is added before estimating
+ * {@code s} and {@code v}, so a run of identical results cannot make the variance zero.</p>
+ */
+public final class Sprt {
+
+  private static final double PRIOR = 0.5;
+
+  private final double elo0;
+  private final double elo1;
+  private final double lowerBound;
+  private final double upperBound;
+
+  /**
+   * Creates a test.
+   *
+   * @param elo0  the Elo difference under the null hypothesis
+   * @param elo1  the Elo difference under the alternative hypothesis, greater than {@code elo0}
+   * @param alpha the accepted chance of accepting H1 when H0 holds
+   * @param beta  the accepted chance of accepting H0 when H1 holds
+   * @throws IllegalArgumentException if {@code elo1 <= elo0} or an error rate is not in (0, 1)
+   */
+  public Sprt(double elo0, double elo1, double alpha, double beta)
+      throws IllegalArgumentException {
+    if (elo1 <= elo0) {
+      throw new IllegalArgumentException("elo1 must be greater than elo0, got " + elo0 + " and "
+          + elo1);
+    }
+    if (alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1) {
+      throw new IllegalArgumentException("error rates must be in (0,1), got " + alpha + " and "
+          + beta);
+    }
+    this.elo0 = elo0;
+    this.elo1 = elo1;
+    this.lowerBound = Math.log(beta / (1 - alpha));
+    this.upperBound = Math.log((1 - beta) / alpha);
+  }
+
+  /**
+   * The expected score of a player {@code elo} points stronger than their opponent.
+   */
+  public static double expectedScore(double elo) {
+    return 1 / (1 + Math.pow(10, -elo / 400));
+  }
+
+  /**
+   * The Elo difference implied by an expected score.
+   */
+  public static double eloOf(double score) {
+    double clamped = Math.min(Math.max(score, 1e-6), 1 - 1e-6);
+    return -400 * Math.log10(1 / clamped - 1);
+  }
+
+  /**
+   * The log-likelihood ratio of H1 against H0 for the given results.
+   */
+  public double llr(long wins, long draws, long losses) {
+    long games = wins + draws + losses;
+    if (games == 0) {
+      return 0;
+    }
+    double w = wins + PRIOR;
+    double d = draws + PRIOR;
+    double l = losses + PRIOR;
+    double total = w + d + l;
+    double score = (w + 0.5 * d) / total;
+    double variance = (w * Math.pow(1 - score, 2) + d * Math.pow(0.5 - score, 2)
+        + l * Math.pow(score, 2)) / total;
+
+    double s0 = expectedScore(this.elo0);
+    double s1 = expectedScore(this.elo1);
+    return games * (s1 - s0) * (2 * score - s0 - s1) / (2 * variance);
+  }
+
+  public ESprtDecision decide(long wins, long draws, long losses) {
+    double llr = this.llr(wins, draws, losses);
+    if (llr >= this.upperBound) {
+      return ESprtDecision.ACCEPT_H1;
+    } else if (llr <= this.lowerBound) {
+      return ESprtDecision.ACCEPT_H0;
+    }
+    return ESprtDecision.CONTINUE;
+  }
+
+  public double getLowerBound() {
+    return this.lowerBound;
+  }
+
+  public double getUpperBound() {
+    return this.upperBound;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("SPRT(elo0=%.1f, elo1=%.1f, bounds [%.2f, %.2f])", this.elo0, this.elo1,
+        this.lowerBound, this.upperBound);
+  }
+}
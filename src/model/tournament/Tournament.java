@@ -0,0 +1,219 @@
+package model.tournament;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import model.ChessModelImpl;
+import model.IChessModel;
+import model.Utils;
+import model.bitboard.Bitboards;
+import model.board.Move;
+import model.board.Position;
+import model.engine.Search;
+import model.engine.SearchLimits;
+import model.player.EGameResult;
+
+/**
+ * <p>Plays two {@link EngineConfig}s against each other until a {@link Sprt} reaches a decision or
+ * a game limit is hit. Each opening in the {@link OpeningBook} is played twice with colours
+ * swapped, so neither engine profits from a lopsided opening.</p>
+ * <p>Games run in parallel on a fixed pool of threads. Each thread keeps one {@link Search} per
+ * engine and clears it between games, so tables are allocated once per thread rather than once per
+ * game. Moves are played through a {@link ChessModelImpl}, which adjudicates checkmate, stalemate
+ * and the draw rules; games still going after {@link #MAX_GAME_PLIES} plies count as draws. An
+ * engine whose budget runs out before it finds any move plays its first legal move instead.</p>
+ */
+public final class Tournament {
+
+  public static final int MAX_GAME_PLIES = 400;
+
+  private final EngineConfig first;
+  private final EngineConfig second;
+  private final OpeningBook openings;
+  private final Sprt sprt;
+  private final int maxGames;
+  private final int threads;
+
+  /**
+   * Creates a tournament.
+   *
+   * @param first    the engine whose strength is being tested
+   * @param second   the engine it is tested against
+   * @param openings the positions to start games from
+   * @param sprt     the test deciding when to stop
+   * @param maxGames the most games to play if the test stays inconclusive
+   * @param threads  how many games to play at once
+   * @throws IllegalArgumentException if any argument is null or either count is not positive
+   */
+  public Tournament(EngineConfig first, EngineConfig second, OpeningBook openings, Sprt sprt,
+      int maxGames, int threads)
+      throws IllegalArgumentException {
+    this.first = Utils.nonNullConstructor(first, "Tournament", "EngineConfig");
+    this.second = Utils.nonNullConstructor(second, "Tournament", "EngineConfig");
+    this.openings = Utils.nonNullConstructor(openings, "Tournament", "OpeningBook");
+    this.sprt = Utils.nonNullConstructor(sprt, "Tournament", "Sprt");
+    this.maxGames = Utils.checkIntBetween(maxGames, 1, Integer.MAX_VALUE);
+    this.threads = Utils.checkIntBetween(threads, 1, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Plays the tournament to completion.
+   *
+   * @return the final standing
+   * @throws InterruptedException if the calling thread is interrupted while waiting for games
+   */
+  public TournamentResult run()
+      throws InterruptedException {
+    return this.run(result -> {
+    });
+  }
+
+  /**
+   * Plays the tournament to completion, reporting the standing after every finished game.
+   *
+   * @param progress called on the calling thread after each game
+   * @return the final standing
+   * @throws IllegalArgumentException if the callback is null
+   * @throws InterruptedException     if the calling thread is interrupted while waiting for games
+   * @throws IllegalStateException    if a game fails
+   */
+  public TournamentResult run(Consumer<TournamentResult> progress)
+      throws IllegalArgumentException, InterruptedException, IllegalStateException {
+    Utils.checkNotNull(progress, "cannot report progress to a null callback");
+    long start = System.nanoTime();
+    AtomicBoolean stopped = new AtomicBoolean();
+    ThreadLocal<Search[]> searches = ThreadLocal.withInitial(
+        () -> new Search[]{this.first.createSearch(), this.second.createSearch()});
+
+    ExecutorService executor = Executors.newFixedThreadPool(this.threads, runnable -> {
+      Thread thread = new Thread(runnable, "tournament-game");
+      thread.setDaemon(true);
+      return thread;
+    });
+    CompletionService<Integer> games = new ExecutorCompletionService<>(executor);
+    for (int game = 0; game < this.maxGames; game++) {
+      int index = game;
+      games.submit(() -> this.playGame(index, searches.get(), stopped));
+    }
+
+    long wins = 0;
+    long draws = 0;
+    long losses = 0;
+    TournamentResult result = this.resultOf(0, 0, 0, start);
+    try {
+      for (int finished = 0; finished < this.maxGames; finished++) {
+        Integer points = games.take().get();
+        if (points == null) {
+          continue;
+        }
+        if (points == 2) {
+          wins++;
+        } else if (points == 1) {
+          draws++;
+        } else {
+          losses++;
+        }
+        result = this.resultOf(wins, draws, losses, start);
+        progress.accept(result);
+        if (result.getDecision().isFinal()) {
+          break;
+        }
+      }
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("a tournament game failed", e.getCause());
+    } finally {
+      stopped.set(true);
+      executor.shutdownNow();
+    }
+    return result;
+  }
+
+  private TournamentResult resultOf(long wins, long draws, long losses, long start) {
+    return new TournamentResult(this.first.getName(), this.second.getName(), wins, draws, losses,
+        System.nanoTime() - start, this.sprt.llr(wins, draws, losses),
+        this.sprt.decide(wins, draws, losses));
+  }
+
+  /**
+   * Plays one game, returning the first engine's score in half points, or null if the tournament
+   * stopped before the game finished.
+   */
+  private Integer playGame(int index, Search[] searches, AtomicBoolean stopped) {
+    // the first engine takes white in even games, and the following odd game repeats the opening
+    boolean firstIsWhite = index % 2 == 0;
+    String opening = this.openings.get(index / 2);
+    IChessModel model = new ChessModelImpl(opening);
+    Position position = Position.fromFen(opening);
+    int[] legalMoves = new int[Position.MAX_MOVES];
+    searches[0].clear();
+    searches[1].clear();
+
+    EGameResult result = model.getResult();
+    for (int ply = 0; !result.isOver() && ply < MAX_GAME_PLIES; ply++) {
+      if (stopped.get()) {
+        return null;
+      }
+      boolean firstToMove = (position.getSideToMove() == Position.WHITE) == firstIsWhite;
+      EngineConfig engine = firstToMove ? this.first : this.second;
+      int move = searches[firstToMove ? 0 : 1].search(position, engine.getLimits()).getBestMove();
+      if (move == Move.NONE) {
+        // the game is not over, so there is a legal move to fall back on
+        position.generateLegalMoves(legalMoves);
+        move = legalMoves[0];
+      }
+
+      // the model always promotes to a queen, so the position must too to stay in step
+      if (Move.isPromotion(move) && Move.promotionType(move) != Position.QUEEN) {
+        move = Move.promotion(Move.from(move), Move.to(move), Position.QUEEN,
+            Move.isCapture(move));
+      }
+      model.move(model.getPieceAt(Bitboards.posnOf(Move.from(move))),
+          Bitboards.posnOf(Move.to(move)));
+      position.make(move);
+      result = model.getResult();
+    }
+
+    if (!result.isOver() || result.isDraw()) {
+      return 1;
+    }
+    return (result.getWinner() == Position.playerOf(Position.WHITE)) == firstIsWhite ? 2 : 0;
+  }
+
+  /**
+   * Runs a node-budgeted match from the command line. Arguments: an EPD file of openings, the node
+   * budget of the first engine, the node budget of the second, and optionally the most games to
+   * play and the number of threads. The SPRT tests H0 of 0 Elo against H1 of 10 Elo at 5% error
+   * rates.
+   */
+  public static void main(String[] args)
+      throws IOException, InterruptedException {
+    if (args.length < 3) {
+      System.err.println("usage: Tournament <openings.epd> <first nodes> <second nodes> "
+          + "[max games] [threads]");
+      System.exit(2);
+    }
+    OpeningBook openings = OpeningBook.fromEpd(Paths.get(args[0]));
+    EngineConfig first = new EngineConfig("first",
+        SearchLimits.nodes(Long.parseLong(args[1])), 18);
+    EngineConfig second = new EngineConfig("second",
+        SearchLimits.nodes(Long.parseLong(args[2])), 18);
+    int maxGames = args.length > 3 ? Integer.parseInt(args[3]) : 20000;
+    int threads = args.length > 4 ? Integer.parseInt(args[4])
+        : Runtime.getRuntime().availableProcessors();
+
+    Tournament tournament = new Tournament(first, second, openings, new Sprt(0, 10, 0.05, 0.05),
+        maxGames, threads);
+    TournamentResult result = tournament.run(standing -> {
+      if (standing.getGames() % 20 == 0) {
+        System.out.println(standing);
+      }
+    });
+    System.out.println(result);
+  }
+}
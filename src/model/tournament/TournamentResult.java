@@ -0,0 +1,102 @@
+package model.tournament;
+
+/**
+ * The standing of a {@link Tournament}, from the first engine's point of view: its wins, draws and
+ * losses against the second engine, the Elo difference they imply, and where the SPRT stands.
+ */
+public final class TournamentResult {
+
+  // two-sided 95% confidence
+  private static final double Z_95 = 1.959964;
+
+  private final String firstName;
+  private final String secondName;
+  private final long wins;
+  private final long draws;
+  private final long losses;
+  private final long elapsedNanos;
+  private final double llr;
+  private final ESprtDecision decision;
+
+  TournamentResult(String firstName, String secondName, long wins, long draws, long losses,
+      long elapsedNanos, double llr, ESprtDecision decision) {
+    this.firstName = firstName;
+    this.secondName = secondName;
+    this.wins = wins;
+    this.draws = draws;
+    this.losses = losses;
+    this.elapsedNanos = elapsedNanos;
+    this.llr = llr;
+    this.decision = decision;
+  }
+
+  public long getWins() {
+    return this.wins;
+  }
+
+  public long getDraws() {
+    return this.draws;
+  }
+
+  public long getLosses() {
+    return this.losses;
+  }
+
+  public long getGames() {
+    return this.wins + this.draws + this.losses;
+  }
+
+  /**
+   * The first engine's average score per game, from 0 to 1.
+   */
+  public double getScore() {
+    long games = this.getGames();
+    return games == 0 ? 0.5 : (this.wins + 0.5 * this.draws) / games;
+  }
+
+  /**
+   * How many Elo points stronger the first engine appears to be.
+   */
+  public double getElo() {
+    return Sprt.eloOf(this.getScore());
+  }
+
+  /**
+   * Half the width of the 95% confidence interval around {@link #getElo()}.
+   */
+  public double getEloErrorMargin() {
+    long games = this.getGames();
+    if (games == 0) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double score = this.getScore();
+    double variance = (this.wins * Math.pow(1 - score, 2) + this.draws * Math.pow(0.5 - score, 2)
+        + this.losses * Math.pow(score, 2)) / games;
+    double deviation = Z_95 * Math.sqrt(variance / games);
+    return (Sprt.eloOf(score + deviation) - Sprt.eloOf(score - deviation)) / 2;
+  }
+
+  public double getLlr() {
+    return this.llr;
+  }
+
+  public ESprtDecision getDecision() {
+    return this.decision;
+  }
+
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  public double getGamesPerMinute() {
+    return this.elapsedNanos == 0 ? 0 : this.getGames() * 60e9 / this.elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s vs %s: +%d =%d -%d (%.1f%%), Elo %+.1f +/- %.1f, LLR %.2f (%s), "
+            + "%.1f games/min", this.firstName, this.secondName, this.wins, this.draws,
+        this.losses, 100 * this.getScore(), this.getElo(), this.getEloErrorMargin(), this.llr,
+        this.decision, this.getGamesPerMinute());
+  }
+}
@@ -0,0 +1,102 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import model.analysis.BatchAnalyzer;
+import model.analysis.BatchResult;
+import model.analysis.EAnalysisMode;
+import model.board.Move;
+import model.board.Position;
+import model.engine.SearchLimits;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchAnalyzerTest {
+
+  private static final String BACK_RANK_MATE = "6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1";
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    this.executor = Executors.newFixedThreadPool(2);
+  }
+
+  @After
+  public void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  public void testBestMovesInOrder() throws InterruptedException {
+    BatchAnalyzer analyzer = new BatchAnalyzer(this.executor, 2, SearchLimits.depth(4), 12);
+    List<String> fens = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      fens.add(i % 2 == 0 ? BACK_RANK_MATE : Position.START_FEN);
+    }
+    BatchResult result = analyzer.analyze(fens, EAnalysisMode.BEST_MOVE);
+
+    Assert.assertEquals(10, result.size());
+    Assert.assertEquals(0, result.getFailures());
+    for (int i = 0; i < 10; i += 2) {
+      Assert.assertEquals(BACK_RANK_MATE, result.get(i).getFen());
+      Assert.assertEquals("a1a8", Move.toString(result.get(i).getBestMove()));
+      Assert.assertTrue(result.get(i + 1).getBestMove() != Move.NONE);
+    }
+
+    long[] latencies = new long[10];
+    for (int i = 0; i < 10; i++) {
+      latencies[i] = result.get(i).getLatencyNanos();
+    }
+    Arrays.sort(latencies);
+    Assert.assertEquals(latencies[4], result.getLatencyPercentile(50));
+    Assert.assertEquals(latencies[8], result.getLatencyPercentile(90));
+    Assert.assertEquals(latencies[9], result.getLatencyPercentile(99));
+    Assert.assertEquals(latencies[9], result.getMaxLatencyNanos());
+    Assert.assertEquals(latencies[0], result.getLatencyPercentile(0));
+  }
+
+  @Test
+  public void testEvaluateAndBadPositions() throws InterruptedException {
+    BatchAnalyzer analyzer = new BatchAnalyzer(this.executor, 2, SearchLimits.depth(1), 12);
+    BatchResult result = analyzer.analyze(Arrays.asList(Position.START_FEN, "not a fen",
+        "8/8/8/8/8/8/8/8 w - -", "4k3/8/8/8/8/8/8/Q3K3 b - -",
+        "4k3/8/8/8/8/8/8/4K3 w KQkq - 0 1", "P3k3/8/8/8/8/8/8/4K3 w - - 0 1",
+        "4k3/8/8/8/8/8/8/4K2p b - - 0 1", "4k3/4R3/8/8/8/8/8/4K3 w - - 0 1"),
+        EAnalysisMode.EVALUATE);
+
+    Assert.assertEquals(5, result.getFailures());
+    Assert.assertTrue(result.get(0).isValid());
+    Assert.assertEquals(0, result.get(0).getScore());
+    Assert.assertFalse(result.get(1).isValid());
+    Assert.assertFalse(result.get(2).isValid());
+    Assert.assertTrue(result.get(3).getScore() < -800);
+    Assert.assertEquals(Move.NONE, result.get(3).getBestMove());
+    // castling rights without the rooks to castle with are dropped rather than rejected
+    Assert.assertTrue(result.get(4).isValid());
+    Assert.assertEquals(0, result.get(4).getScore());
+    // pawns on a back rank, and the side not to move in check
+    for (int i = 5; i < 8; i++) {
+      Assert.assertFalse(result.get(i).isValid());
+    }
+  }
+
+  @Test
+  public void testBestMoveBatchSurvivesBadPositions() throws InterruptedException {
+    BatchAnalyzer analyzer = new BatchAnalyzer(this.executor, 2, SearchLimits.depth(2), 12);
+    BatchResult result = analyzer.analyze(Arrays.asList("P3k3/8/8/8/8/8/8/4K3 w - - 0 1",
+        Position.START_FEN, "4k3/4R3/8/8/8/8/8/4K3 w - - 0 1"), EAnalysisMode.BEST_MOVE);
+
+    Assert.assertEquals(2, result.getFailures());
+    Assert.assertTrue(result.get(1).isValid());
+    Assert.assertNotEquals(Move.NONE, result.get(1).getBestMove());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTableSizeValidated() {
+    new BatchAnalyzer(this.executor, 2, SearchLimits.depth(1), 60);
+  }
+}
@@ -0,0 +1,42 @@
+import java.util.function.LongSupplier;
+import model.board.Position;
+import model.board.WidePosition;
+import model.posn.BoardGeometry;
+
+/**
+ * Times perft from the starting position on each board size: the 64-bit {@link Position} on 8x8,
+ * and the {@code long[]}-backed {@link WidePosition} on 8x8, 10x8 and 10x10, so the cost of the
+ * wide backend and of the bigger boards can be compared in nodes per second. {@link Perft}
+ * allocates its move buffers once per run, so the timings do not include the allocator.
+ */
+public class BoardGeometryBenchmark {
+
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int ROUNDS = 5;
+
+  public static void main(String[] args) {
+    int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+
+    report("8x8 Position", depth, () -> Perft.perft(Position.startingPosition(), depth));
+    for (BoardGeometry geometry : new BoardGeometry[]{BoardGeometry.STANDARD,
+        BoardGeometry.CAPABLANCA, BoardGeometry.TEN_BY_TEN}) {
+      report(geometry + " WidePosition", depth,
+          () -> Perft.perft(WidePosition.startingPosition(geometry), depth));
+    }
+  }
+
+  private static void report(String name, int depth, LongSupplier perft) {
+    for (int round = 0; round < WARMUP_ROUNDS; round++) {
+      perft.getAsLong();
+    }
+    long nodes = 0;
+    double bestNanos = Double.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      nodes = perft.getAsLong();
+      bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+    }
+    System.out.printf("%-20s perft(%d) = %,12d  %,8.0f knodes/s%n", name, depth, nodes,
+        nodes / bestNanos * 1e6);
+  }
+}
@@ -0,0 +1,157 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import model.ChessModelImpl;
+import model.bitboard.Bitboards;
+import model.board.GameHistory;
+import model.board.Move;
+import model.board.Position;
+import model.piece.IChessPiece;
+import model.player.EChessPlayer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GameHistoryTest {
+
+  private static final String KIWIPETE =
+      "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+  private static void play(GameHistory history, Position position, String move) {
+    int[] moves = new int[Position.MAX_MOVES];
+    int count = position.generateLegalMoves(moves);
+    for (int i = 0; i < count; i++) {
+      if (Move.toString(moves[i]).equals(move)) {
+        history.play(moves[i]);
+        return;
+      }
+    }
+    throw new IllegalArgumentException("illegal move " + move);
+  }
+
+  private static void move(ChessModelImpl model, String from, String to) {
+    model.move(model.getPieceAt(Bitboards.posnOf(Move.parseSquare(from))),
+        Bitboards.posnOf(Move.parseSquare(to)));
+  }
+
+  @Test
+  public void testUndoAndRedoRestoreEveryPosition() {
+    Position position = Position.fromFen(KIWIPETE);
+    GameHistory history = new GameHistory(position);
+    int[] moves = new int[Position.MAX_MOVES];
+    List<String> fens = new ArrayList<>();
+    fens.add(position.toFen());
+    for (int ply = 0; ply < 80 && position.hasLegalMove(); ply++) {
+      int count = position.generateLegalMoves(moves);
+      history.play(moves[ply * 7 % count]);
+      fens.add(position.toFen());
+    }
+
+    for (int ply = fens.size() - 1; ply > 0; ply--) {
+      history.undo();
+      Assert.assertEquals(fens.get(ply - 1), position.toFen());
+    }
+    Assert.assertFalse(history.canUndo());
+    for (int ply = 1; ply < fens.size(); ply++) {
+      history.redo();
+      Assert.assertEquals(fens.get(ply), position.toFen());
+    }
+    Assert.assertFalse(history.canRedo());
+  }
+
+  @Test
+  public void testJumpKeepsDrawRules() {
+    Position position = Position.startingPosition();
+    GameHistory history = new GameHistory(position);
+    List<String> fens = new ArrayList<>();
+    List<Boolean> draws = new ArrayList<>();
+    fens.add(position.toFen());
+    draws.add(false);
+    String[] shuffle = {"g1f3", "g8f6", "f3g1", "f6g8"};
+    for (int ply = 0; ply < 150; ply++) {
+      play(history, position, shuffle[ply % shuffle.length]);
+      fens.add(position.toFen());
+      draws.add(position.isThreefoldRepetition() || position.isFiftyMoveDraw());
+    }
+
+    for (int target : new int[] {150, 3, 120, 64, 0, 101, 99}) {
+      history.jumpTo(target);
+      Assert.assertEquals(fens.get(target), position.toFen());
+      Assert.assertEquals(draws.get(target),
+          position.isThreefoldRepetition() || position.isFiftyMoveDraw());
+      Assert.assertEquals(target >= 8, position.isThreefoldRepetition());
+    }
+    // undoing past the moves replayed by the jump falls back to another jump
+    history.jumpTo(40);
+    for (int ply = 40; ply > 0; ply--) {
+      history.undo();
+      Assert.assertEquals(fens.get(ply - 1), position.toFen());
+    }
+  }
+
+  @Test
+  public void testLongUndoKeepsDrawRules() {
+    Position position = Position.startingPosition();
+    GameHistory history = new GameHistory(position);
+    Position jumped = Position.startingPosition();
+    GameHistory jumps = new GameHistory(jumped);
+    List<Integer> clocks = new ArrayList<>();
+    clocks.add(0);
+    String[] shuffle = {"g1f3", "g8f6", "f3g1", "f6g8"};
+    for (int ply = 0; ply < 300; ply++) {
+      play(history, position, shuffle[ply % shuffle.length]);
+      play(jumps, jumped, shuffle[ply % shuffle.length]);
+      clocks.add(position.getHalfmoveClock());
+    }
+
+    // more plies than the position's repetition history holds
+    for (int ply = 300; ply > 0; ply--) {
+      history.undo();
+      jumps.jumpTo(ply - 1);
+      Assert.assertEquals(jumped.toFen(), position.toFen());
+      Assert.assertEquals((long) clocks.get(ply - 1), position.getHalfmoveClock());
+      Assert.assertEquals(jumped.isFiftyMoveDraw(), position.isFiftyMoveDraw());
+      Assert.assertEquals(jumped.isThreefoldRepetition(), position.isThreefoldRepetition());
+    }
+    Assert.assertFalse(position.isFiftyMoveDraw());
+  }
+
+  @Test
+  public void testPlayingAfterUndoDiscardsRedo() {
+    Position position = Position.startingPosition();
+    GameHistory history = new GameHistory(position);
+    play(history, position, "e2e4");
+    play(history, position, "e7e5");
+    history.undo();
+    play(history, position, "c7c5");
+
+    Assert.assertFalse(history.canRedo());
+    Assert.assertEquals(2, history.size());
+    Assert.assertEquals(Arrays.asList("e2e4", "c7c5"), history.getMoveList());
+  }
+
+  @Test
+  public void testModelUndoRestoresCapturedPieces() {
+    ChessModelImpl model = new ChessModelImpl();
+    move(model, "e2", "e4");
+    move(model, "d7", "d5");
+    IChessPiece capturer = model.getPieceAt(Bitboards.posnOf(Move.parseSquare("e4")));
+    move(model, "e4", "d5");
+    Assert.assertEquals(1, model.getScoreOf(EChessPlayer.WHITE));
+    Assert.assertEquals(1, model.getGraveyardOf(EChessPlayer.BLACK).size());
+
+    model.undo();
+    Assert.assertEquals(0, model.getScoreOf(EChessPlayer.WHITE));
+    Assert.assertTrue(model.getGraveyardOf(EChessPlayer.BLACK).isEmpty());
+    Assert.assertSame(capturer, model.getPieceAt(Bitboards.posnOf(Move.parseSquare("e4"))));
+    Assert.assertEquals(EChessPlayer.BLACK,
+        model.getPieceAt(Bitboards.posnOf(Move.parseSquare("d5"))).getOwner());
+
+    model.redo();
+    Assert.assertSame(capturer, model.getPieceAt(Bitboards.posnOf(Move.parseSquare("d5"))));
+    Assert.assertEquals(Arrays.asList("e2e4", "d7d5", "e4d5"), model.getMoveList());
+
+    model.jumpTo(1);
+    Assert.assertEquals(EChessPlayer.BLACK, model.getCurrentPlayer());
+    Assert.assertTrue(model.getGraveyardOf(EChessPlayer.BLACK).isEmpty());
+  }
+}
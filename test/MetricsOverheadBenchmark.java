@@ -0,0 +1,91 @@
+import java.util.Arrays;
+import model.bitboard.Bitboards;
+import model.metrics.ChessMetrics;
+
+/**
+ * Measures what the {@link ChessMetrics} hooks cost on a hot loop. The same attack-generation loop
+ * is timed with and without the hooks in one JVM; run it once as is and once with
+ * {@code -Dchess.metrics=true} to compare the disabled and enabled costs. After some warm-up
+ * rounds the two loops are timed in alternating order, and the spread of the overhead across
+ * rounds is reported alongside its median, since a single difference is mostly noise.
+ */
+public class MetricsOverheadBenchmark {
+
+  private static final int WARMUP_ROUNDS = 10;
+  private static final int ROUNDS = 31;
+  private static final int ITERATIONS = 200_000;
+
+  private static long sink;
+
+  public static void main(String[] args) {
+    System.out.println("metrics enabled: " + ChessMetrics.ENABLED);
+
+    for (int round = 0; round < WARMUP_ROUNDS; round++) {
+      sink += bare() + hooked();
+    }
+
+    double[] bareNanos = new double[ROUNDS];
+    double[] hookedNanos = new double[ROUNDS];
+    double[] overheads = new double[ROUNDS];
+    for (int round = 0; round < ROUNDS; round++) {
+      if (round % 2 == 0) {
+        bareNanos[round] = timeBare();
+        hookedNanos[round] = timeHooked();
+      } else {
+        hookedNanos[round] = timeHooked();
+        bareNanos[round] = timeBare();
+      }
+      overheads[round] = 100 * (hookedNanos[round] - bareNanos[round]) / bareNanos[round];
+    }
+    Arrays.sort(bareNanos);
+    Arrays.sort(hookedNanos);
+    Arrays.sort(overheads);
+
+    System.out.printf("without hooks: %.2f ns/op (median)%n", bareNanos[ROUNDS / 2]);
+    System.out.printf("with hooks:    %.2f ns/op (median)%n", hookedNanos[ROUNDS / 2]);
+    System.out.printf("overhead:      %.1f%% median, %.1f%% to %.1f%% interquartile, "
+            + "%.1f%% to %.1f%% overall%n", overheads[ROUNDS / 2], overheads[ROUNDS / 4],
+        overheads[3 * ROUNDS / 4], overheads[0], overheads[ROUNDS - 1]);
+    System.out.println("(checksum " + sink + ")");
+    System.out.println(ChessMetrics.snapshot());
+  }
+
+  private static double timeBare() {
+    long start = System.nanoTime();
+    sink += bare();
+    return (System.nanoTime() - start) / (double) ITERATIONS;
+  }
+
+  private static double timeHooked() {
+    long start = System.nanoTime();
+    sink += hooked();
+    return (System.nanoTime() - start) / (double) ITERATIONS;
+  }
+
+  private static long bare() {
+    long occupied = 0x0000_1824_0042_8100L;
+    long total = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      long attacks = Bitboards.queenAttacks(i & 63, occupied);
+      total += Bitboards.count(attacks);
+      occupied ^= attacks & -attacks;
+    }
+    return total;
+  }
+
+  private static long hooked() {
+    long occupied = 0x0000_1824_0042_8100L;
+    long total = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      long start = ChessMetrics.startTimer();
+      ChessMetrics.recordMake();
+      long attacks = Bitboards.queenAttacks(i & 63, occupied);
+      ChessMetrics.recordMovesGenerated(Bitboards.count(attacks));
+      total += Bitboards.count(attacks);
+      occupied ^= attacks & -attacks;
+      ChessMetrics.recordUnmake();
+      ChessMetrics.recordSearch(1, start);
+    }
+    return total;
+  }
+}
@@ -0,0 +1,35 @@
+import model.board.APosition;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth, the standard check of move
+ * generation against published counts. One move buffer is allocated per depth up front, so the
+ * count itself does not allocate and can also be timed.
+ */
+final class Perft {
+
+  private Perft() {
+  }
+
+  /**
+   * The number of legal move sequences of {@code depth} plies from the position, which is left
+   * as it was found.
+   */
+  static long perft(APosition position, int depth) {
+    return perft(position, depth, new int[depth][position.getMaxMoves()]);
+  }
+
+  private static long perft(APosition position, int depth, int[][] buffers) {
+    int[] moves = buffers[depth - 1];
+    int count = position.generateLegalMoves(moves);
+    if (depth == 1) {
+      return count;
+    }
+    long nodes = 0;
+    for (int i = 0; i < count; i++) {
+      position.make(moves[i]);
+      nodes += perft(position, depth - 1, buffers);
+      position.unmake(moves[i]);
+    }
+    return nodes;
+  }
+}
@@ -0,0 +1,131 @@
+import model.ChessModelImpl;
+import model.IChessModel;
+import model.bitboard.Bitboards;
+import model.board.Move;
+import model.board.Position;
+import model.player.EChessPlayer;
+import model.player.EGameResult;
+import model.posn.BoardPosn;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PositionTest {
+
+  private static final String KIWIPETE =
+      "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+  @Test
+  public void testPerftStartingPosition() {
+    Position position = Position.startingPosition();
+    Assert.assertEquals(20, Perft.perft(position, 1));
+    Assert.assertEquals(400, Perft.perft(position, 2));
+    Assert.assertEquals(8902, Perft.perft(position, 3));
+    Assert.assertEquals(197281, Perft.perft(position, 4));
+  }
+
+  @Test
+  public void testPerftTricky() {
+    Assert.assertEquals(97862, Perft.perft(Position.fromFen(KIWIPETE), 3));
+    Assert.assertEquals(43238, Perft.perft(Position.fromFen("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -"), 4));
+    Assert.assertEquals(9467, Perft.perft(Position.fromFen(
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1"), 3));
+    Assert.assertEquals(62379, Perft.perft(Position.fromFen(
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8"), 3));
+  }
+
+  @Test
+  public void testMakeUnmakeRestoresPosition() {
+    Position position = Position.fromFen(KIWIPETE);
+    long key = position.getKey();
+    int[] moves = new int[Position.MAX_MOVES];
+    int count = position.generateLegalMoves(moves);
+    for (int i = 0; i < count; i++) {
+      position.make(moves[i]);
+      Assert.assertEquals(Position.fromFen(position.toFen()).getKey(), position.getKey());
+      position.unmake(moves[i]);
+      Assert.assertEquals(KIWIPETE, position.toFen());
+      Assert.assertEquals(key, position.getKey());
+    }
+  }
+
+  private static void move(IChessModel model, String from, String to) {
+    int fromSquare = Move.parseSquare(from);
+    model.move(model.getPieceAt(Bitboards.posnOf(fromSquare)),
+        Bitboards.posnOf(Move.parseSquare(to)));
+  }
+
+  @Test
+  public void testThreefoldRepetition() {
+    IChessModel model = new ChessModelImpl();
+    for (int i = 0; i < 2; i++) {
+      Assert.assertEquals(EGameResult.IN_PROGRESS, model.getResult());
+      move(model, "g1", "f3");
+      move(model, "g8", "f6");
+      move(model, "f3", "g1");
+      move(model, "f6", "g8");
+    }
+    Assert.assertEquals(EGameResult.DRAW_BY_REPETITION, model.getResult());
+    Assert.assertNull(model.getWinner());
+  }
+
+  @Test
+  public void testFiftyMoveRule() {
+    IChessModel model = new ChessModelImpl("4k3/8/8/8/8/8/4P3/4K2R w - - 99 80");
+    move(model, "h1", "h2");
+    Assert.assertEquals(EGameResult.DRAW_BY_FIFTY_MOVES, model.getResult());
+
+    // a pawn move resets the count
+    model = new ChessModelImpl("4k3/8/8/8/8/8/4P3/4K2R w - - 99 80");
+    move(model, "e2", "e4");
+    Assert.assertEquals(EGameResult.IN_PROGRESS, model.getResult());
+  }
+
+  @Test
+  public void testCheckmateAndCapture() {
+    IChessModel model = new ChessModelImpl();
+    move(model, "f2", "f3");
+    move(model, "e7", "e5");
+    move(model, "g2", "g4");
+    move(model, "d8", "h4");
+    Assert.assertEquals(EGameResult.BLACK_WINS, model.getResult());
+    Assert.assertEquals(EChessPlayer.BLACK, model.getWinner());
+
+    model = new ChessModelImpl("4k3/8/8/3p4/4P3/8/8/4K3 w - - 0 1");
+    BoardPosn d5 = Bitboards.posnOf(Move.parseSquare("d5"));
+    move(model, "e4", "d5");
+    Assert.assertEquals(1, model.getScoreOf(EChessPlayer.WHITE));
+    Assert.assertEquals(1, model.getGraveyardOf(EChessPlayer.BLACK).size());
+    Assert.assertEquals(EChessPlayer.WHITE, model.getPieceAt(d5).getOwner());
+  }
+
+  @Test
+  public void testLoadRejectsUnreachablePositions() {
+    String[] unreachable = {
+        "4k3/8/8/8/8/8/8/8 w - - 0 1",
+        "4k3/8/8/8/8/8/8/3KK3 w - - 0 1",
+        "P3k3/8/8/8/8/8/8/4K3 w - - 0 1",
+        "4k3/8/8/8/8/8/8/4K2p b - - 0 1",
+        "4k3/4R3/8/8/8/8/8/4K3 w - - 0 1",
+        "QQQQk3/QQQQQQQQ/8/8/8/8/8/4K3 w - - 0 1"};
+    for (String fen : unreachable) {
+      try {
+        Position.fromFen(fen);
+        Assert.fail("loaded " + fen);
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void testLoadDropsRightsThatDoNotApply() {
+    Assert.assertEquals("4k3/8/8/8/8/8/8/4K3 w - - 0 1",
+        Position.fromFen("4k3/8/8/8/8/8/8/4K3 w KQkq - 0 1").toFen());
+    Assert.assertEquals("r3k3/8/8/8/8/8/8/4K2R w Kq - 0 1",
+        Position.fromFen("r3k3/8/8/8/8/8/8/4K2R w KQkq - 0 1").toFen());
+    Assert.assertEquals("4k3/8/8/8/4P3/8/8/4K3 b - - 0 1",
+        Position.fromFen("4k3/8/8/8/4P3/8/8/4K3 b - d3 0 1").toFen());
+    Assert.assertEquals("4k3/8/8/8/4P3/8/8/4K3 b - e3 0 1",
+        Position.fromFen("4k3/8/8/8/4P3/8/8/4K3 b - e3 0 1").toFen());
+  }
+}
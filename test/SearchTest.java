@@ -0,0 +1,134 @@
+import java.util.Arrays;
+import model.board.Move;
+import model.board.Position;
+import model.engine.EMovePickerStage;
+import model.engine.HistoryTable;
+import model.engine.MovePicker;
+import model.engine.Search;
+import model.engine.SearchLimits;
+import model.engine.SearchResult;
+import model.engine.SearchStatistics;
+import model.engine.StaticExchange;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SearchTest {
+
+  private static final String KIWIPETE =
+      "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+  @Test
+  public void testMovePickerYieldsEveryMoveOnce() {
+    Position position = Position.fromFen(KIWIPETE);
+    int[] expected = new int[Position.MAX_MOVES];
+    int count = position.generatePseudoLegalMoves(expected);
+
+    int hashMove = Move.of(Move.parseSquare("e2"), Move.parseSquare("a6"), Move.FLAG_CAPTURE);
+    int killer = Move.of(Move.parseSquare("a2"), Move.parseSquare("a4"), Move.FLAG_DOUBLE_PUSH);
+    // not pseudo-legal here, so must be skipped
+    int staleKiller = Move.of(Move.parseSquare("b1"), Move.parseSquare("c3"), Move.FLAG_QUIET);
+
+    SearchStatistics statistics = new SearchStatistics();
+    MovePicker picker = new MovePicker();
+    picker.reset(position, hashMove, killer, staleKiller, new HistoryTable(), statistics);
+
+    int[] picked = new int[Position.MAX_MOVES];
+    int numPicked = 0;
+    int move;
+    while ((move = picker.next()) != Move.NONE) {
+      picked[numPicked++] = move;
+    }
+
+    Assert.assertEquals(hashMove, picked[0]);
+    Assert.assertTrue(Move.isCapture(picked[1]));
+    int[] sortedExpected = Arrays.copyOf(expected, count);
+    int[] sortedPicked = Arrays.copyOf(picked, numPicked);
+    Arrays.sort(sortedExpected);
+    Arrays.sort(sortedPicked);
+    Assert.assertArrayEquals(sortedExpected, sortedPicked);
+
+    Assert.assertEquals(1, statistics.getGenerated(EMovePickerStage.HASH_MOVE));
+    Assert.assertEquals(1, statistics.getGenerated(EMovePickerStage.KILLERS));
+    Assert.assertEquals(1, statistics.getEntered(EMovePickerStage.QUIETS));
+  }
+
+  @Test
+  public void testLaterStagesNotGeneratedAfterCutoff() {
+    Position position = Position.startingPosition();
+    SearchStatistics statistics = new SearchStatistics();
+    MovePicker picker = new MovePicker();
+    int hashMove = Move.of(Move.parseSquare("e2"), Move.parseSquare("e4"), Move.FLAG_DOUBLE_PUSH);
+    picker.reset(position, hashMove, Move.NONE, Move.NONE, new HistoryTable(), statistics);
+
+    Assert.assertEquals(hashMove, picker.next());
+    Assert.assertEquals(0, statistics.getEntered(EMovePickerStage.CAPTURES));
+    Assert.assertEquals(0, statistics.getEntered(EMovePickerStage.QUIETS));
+  }
+
+  @Test
+  public void testStaticExchange() {
+    StaticExchange exchange = new StaticExchange();
+
+    Position undefended = Position.fromFen("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - -");
+    int rookTakes = Move.of(Move.parseSquare("e1"), Move.parseSquare("e5"), Move.FLAG_CAPTURE);
+    Assert.assertEquals(100, exchange.evaluate(undefended, rookTakes));
+
+    // the rook and queen behind each other on the e-file and the queen behind the bishop join in
+    Position xrays = Position.fromFen(
+        "1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - -");
+    int knightTakes = Move.of(Move.parseSquare("d3"), Move.parseSquare("e5"), Move.FLAG_CAPTURE);
+    Assert.assertEquals(-220, exchange.evaluate(xrays, knightTakes));
+    Assert.assertFalse(exchange.isAtLeast(xrays, knightTakes, 0));
+  }
+
+  @Test
+  public void testLosingCapturesPickedLast() {
+    Position xrays = Position.fromFen(
+        "1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - -");
+    int knightTakes = Move.of(Move.parseSquare("d3"), Move.parseSquare("e5"), Move.FLAG_CAPTURE);
+    SearchStatistics statistics = new SearchStatistics();
+    MovePicker picker = new MovePicker();
+
+    picker.reset(xrays, Move.NONE, Move.NONE, Move.NONE, new HistoryTable(), statistics);
+    boolean seenKnightTakes = false;
+    int move;
+    while ((move = picker.next()) != Move.NONE) {
+      seenKnightTakes |= move == knightTakes;
+      // every quiet move comes before the losing capture
+      Assert.assertTrue(Move.isTactical(move) || !seenKnightTakes);
+    }
+    Assert.assertTrue(seenKnightTakes);
+    Assert.assertTrue(statistics.getGenerated(EMovePickerStage.BAD_CAPTURES) > 0);
+
+    picker.resetCaptures(xrays, statistics);
+    while ((move = picker.next()) != Move.NONE) {
+      Assert.assertTrue(move != knightTakes);
+    }
+  }
+
+  @Test
+  public void testFindsBackRankMate() {
+    Position position = Position.fromFen("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+    SearchResult result = new Search().search(position, SearchLimits.depth(4));
+    Assert.assertEquals("a1a8", Move.toString(result.getBestMove()));
+    Assert.assertTrue(result.getScore() > Search.MATE_THRESHOLD);
+    Assert.assertEquals("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1", position.toFen());
+  }
+
+  @Test
+  public void testQuiescenceSeesMateAtTheHorizon() {
+    // at depth 1 the mated side is only reached in quiescence, where it is in check
+    Position position = Position.fromFen("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+    SearchResult result = new Search().search(position, SearchLimits.depth(1));
+    Assert.assertEquals("a1a8", Move.toString(result.getBestMove()));
+    Assert.assertEquals(Search.MATE - 1, result.getScore());
+  }
+
+  @Test
+  public void testNodeBudget() {
+    SearchResult result = new Search().search(Position.startingPosition(),
+        SearchLimits.nodes(20000));
+    Assert.assertTrue(result.getStatistics().getNodes() <= 20000);
+    Assert.assertTrue(result.getBestMove() != Move.NONE);
+  }
+}
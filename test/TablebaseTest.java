@@ -0,0 +1,116 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import model.bitboard.Bitboards;
+import model.engine.Search;
+import model.piece.Queen;
+import model.player.EChessPlayer;
+import model.tablebase.EEndgame;
+import model.tablebase.EWdl;
+import model.tablebase.Tablebase;
+import model.tablebase.TablebaseGenerator;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TablebaseTest {
+
+  private static TablebaseGenerator generator;
+
+  @BeforeClass
+  public static void setUp() {
+    generator = new TablebaseGenerator();
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    generator.shutdown();
+  }
+
+  @Test
+  public void testLongestMates() {
+    // the longest KQK and KRK wins are mates in 10 and 16 moves
+    Assert.assertEquals(20, generator.generate(EEndgame.KQK).getMaxDistanceToMate());
+    Assert.assertEquals(32, generator.generate(EEndgame.KRK).getMaxDistanceToMate());
+  }
+
+  @Test
+  public void testLongestMatesScoreAsMatesAtAnyPly() {
+    for (EEndgame endgame : EEndgame.values()) {
+      Tablebase tablebase = generator.generate(endgame);
+      Assert.assertTrue(tablebase.getMaxDistanceToMate() <= Tablebase.MAX_DISTANCE_TO_MATE);
+      int longest = longestLoss(tablebase);
+      Assert.assertEquals(tablebase.getMaxDistanceToMate(), Tablebase.distanceToMateOf(longest));
+      for (int ply : new int[] {0, 100, Search.MAX_PLY - 1}) {
+        Assert.assertTrue(Search.tablebaseScore(longest, ply) < -Search.MATE_THRESHOLD);
+      }
+    }
+  }
+
+  private static int longestLoss(Tablebase tablebase) {
+    // the longest wins are found with the losing side to move
+    int longest = 0;
+    for (int strongKing = 0; strongKing < Bitboards.NUM_SQUARES; strongKing++) {
+      for (int weakKing = 0; weakKing < Bitboards.NUM_SQUARES; weakKing++) {
+        for (int piece = 0; piece < Bitboards.NUM_SQUARES; piece++) {
+          int result = tablebase.probe(EChessPlayer.WHITE, EChessPlayer.BLACK, strongKing,
+              weakKing, piece);
+          if (Tablebase.isLegal(result) && Tablebase.wdlOf(result) == EWdl.LOSS
+              && Tablebase.distanceToMateOf(result) > Tablebase.distanceToMateOf(longest)) {
+            longest = result;
+          }
+        }
+      }
+    }
+    return longest;
+  }
+
+  @Test
+  public void testMateInOne() {
+    Tablebase kqk = generator.generate(EEndgame.forPiece(new Queen(EChessPlayer.WHITE)));
+    int blackKing = Bitboards.squareOf(0, 0);
+    int whiteKing = Bitboards.squareOf(2, 1);
+    int queen = Bitboards.squareOf(1, 7);
+
+    int result = kqk.probe(EChessPlayer.WHITE, EChessPlayer.WHITE, whiteKing, blackKing, queen);
+    Assert.assertEquals(EWdl.WIN, Tablebase.wdlOf(result));
+    Assert.assertEquals(1, Tablebase.distanceToMateOf(result));
+
+    // the same position with colours swapped
+    int mirrored = kqk.probe(EChessPlayer.BLACK, EChessPlayer.BLACK,
+        Bitboards.flipRow(whiteKing), Bitboards.flipRow(blackKing), Bitboards.flipRow(queen));
+    Assert.assertEquals(result, mirrored);
+  }
+
+  @Test
+  public void testRookPawnDraw() {
+    Tablebase kpk = generator.generate(EEndgame.KPK);
+    int result = kpk.probe(EChessPlayer.WHITE, EChessPlayer.WHITE,
+        Bitboards.squareOf(7, 7), Bitboards.squareOf(0, 0), Bitboards.squareOf(6, 0));
+    Assert.assertEquals(EWdl.DRAW, Tablebase.wdlOf(result));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAdjacentKingsIllegal() {
+    Tablebase.wdlOf(generator.generate(EEndgame.KRK).probe(EChessPlayer.WHITE,
+        EChessPlayer.WHITE, Bitboards.squareOf(4, 4), Bitboards.squareOf(4, 5), 0));
+  }
+
+  @Test
+  public void testWriteAndRead() throws Exception {
+    Tablebase krk = generator.generate(EEndgame.KRK);
+    Path file = Files.createTempFile("krk", ".tb");
+    try {
+      krk.write(file);
+      Tablebase loaded = Tablebase.read(file);
+      Assert.assertEquals(krk.getBitsPerEntry(), loaded.getBitsPerEntry());
+      for (int square = 0; square < Bitboards.NUM_SQUARES; square++) {
+        Assert.assertEquals(
+            krk.probe(EChessPlayer.WHITE, EChessPlayer.BLACK, 18, 3, square),
+            loaded.probe(EChessPlayer.WHITE, EChessPlayer.BLACK, 18, 3, square));
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
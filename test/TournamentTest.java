@@ -0,0 +1,65 @@
+import java.util.Arrays;
+import model.engine.SearchLimits;
+import model.tournament.ESprtDecision;
+import model.tournament.EngineConfig;
+import model.tournament.OpeningBook;
+import model.tournament.Sprt;
+import model.tournament.Tournament;
+import model.tournament.TournamentResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TournamentTest {
+
+  @Test
+  public void testSprtDecisions() {
+    Sprt sprt = new Sprt(0, 10, 0.05, 0.05);
+    Assert.assertEquals(ESprtDecision.CONTINUE, sprt.decide(0, 0, 0));
+    Assert.assertEquals(ESprtDecision.CONTINUE, sprt.decide(10, 20, 10));
+    Assert.assertEquals(ESprtDecision.ACCEPT_H1, sprt.decide(300, 400, 200));
+    Assert.assertEquals(ESprtDecision.ACCEPT_H0, sprt.decide(200, 400, 300));
+    Assert.assertEquals(0, Sprt.eloOf(0.5), 1e-9);
+    Assert.assertEquals(0.75, Sprt.expectedScore(Sprt.eloOf(0.75)), 1e-9);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSprtNeedsOrderedHypotheses() {
+    new Sprt(5, 0, 0.05, 0.05);
+  }
+
+  @Test
+  public void testOpeningsFromEpd() {
+    OpeningBook book = OpeningBook.fromEpdLines(Arrays.asList(
+        "# openings",
+        "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 id \"e4\";",
+        "",
+        "rnbqkbnr/pppppppp/8/8/3P4/8/PPP1PPPP/RNBQKBNR b KQkq d3"));
+    Assert.assertEquals(2, book.size());
+    Assert.assertEquals("rnbqkbnr/pppppppp/8/8/3P4/8/PPP1PPPP/RNBQKBNR b KQkq d3 0 1",
+        book.get(3));
+  }
+
+  @Test
+  public void testStrongerEngineScoresBetter() throws InterruptedException {
+    EngineConfig strong = new EngineConfig("strong", SearchLimits.depth(3), 12);
+    EngineConfig weak = new EngineConfig("weak", SearchLimits.depth(1), 12);
+    Tournament tournament = new Tournament(strong, weak, OpeningBook.startingPosition(),
+        new Sprt(0, 10, 0.05, 0.05), 4, 2);
+    TournamentResult result = tournament.run();
+    Assert.assertEquals(4, result.getGames());
+    Assert.assertTrue(result.getScore() > 0.5);
+  }
+
+  @Test
+  public void testTinyBudgetsStillFinish() throws InterruptedException {
+    EngineConfig hurried = new EngineConfig("hurried", SearchLimits.nodes(1), 4);
+    Tournament tournament = new Tournament(hurried, hurried, OpeningBook.startingPosition(),
+        new Sprt(0, 10, 0.05, 0.05), 2, 1);
+    Assert.assertEquals(2, tournament.run().getGames());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEngineConfigNeedsATableSize() {
+    new EngineConfig("huge", SearchLimits.depth(1), 60);
+  }
+}
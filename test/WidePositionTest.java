@@ -0,0 +1,128 @@
+import java.util.Arrays;
+import model.VariantChessModel;
+import model.board.Move;
+import model.board.Position;
+import model.board.WideMove;
+import model.board.WidePosition;
+import model.piece.Archbishop;
+import model.piece.Chancellor;
+import model.player.EChessPlayer;
+import model.posn.BoardGeometry;
+import model.posn.BoardPosn;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WidePositionTest {
+
+  private static final String KIWIPETE =
+      "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+  @Test
+  public void testPerftMatchesStandardBoard() {
+    BoardGeometry standard = BoardGeometry.STANDARD;
+    Assert.assertEquals(8902, Perft.perft(WidePosition.fromFen(standard, Position.START_FEN), 3));
+    Assert.assertEquals(97862, Perft.perft(WidePosition.fromFen(standard, KIWIPETE), 3));
+    Assert.assertEquals(43238, Perft.perft(WidePosition.fromFen(standard,
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -"), 4));
+    Assert.assertEquals(9467, Perft.perft(WidePosition.fromFen(standard,
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1"), 3));
+  }
+
+  @Test
+  public void testPerftCapablanca() {
+    WidePosition position = WidePosition.startingPosition(BoardGeometry.CAPABLANCA);
+    Assert.assertEquals("rnabqkbcnr/pppppppppp/10/10/10/10/PPPPPPPPPP/RNABQKBCNR w KQkq - 0 1",
+        position.toFen());
+    Assert.assertEquals(28, Perft.perft(position, 1));
+    Assert.assertEquals(784, Perft.perft(position, 2));
+    Assert.assertEquals(25228, Perft.perft(position, 3));
+  }
+
+  @Test
+  public void testTenByTenStartsAndRestores() {
+    WidePosition position = WidePosition.startingPosition(BoardGeometry.TEN_BY_TEN);
+    String fen = position.toFen();
+    long key = position.getKey();
+    Assert.assertEquals(28, Perft.perft(position, 1));
+    Assert.assertEquals(784, Perft.perft(position, 2));
+    Assert.assertEquals(fen, position.toFen());
+    Assert.assertEquals(key, position.getKey());
+
+    int push = WideMove.of(WideMove.parseSquare("e2", BoardGeometry.TEN_BY_TEN),
+        WideMove.parseSquare("e4", BoardGeometry.TEN_BY_TEN), Move.FLAG_DOUBLE_PUSH);
+    position.make(push);
+    Assert.assertEquals("e3", WideMove.squareName(position.getEnPassantSquare(),
+        BoardGeometry.TEN_BY_TEN));
+    Assert.assertEquals(WidePosition.fromFen(BoardGeometry.TEN_BY_TEN, position.toFen()).getKey(),
+        position.getKey());
+  }
+
+  @Test
+  public void testCapablancaCastling() {
+    WidePosition position = WidePosition.fromFen(BoardGeometry.CAPABLANCA,
+        "r4k3r/10/10/10/10/10/10/R4K3R w KQkq - 0 1");
+    int[] moves = new int[WidePosition.MAX_MOVES];
+    int count = position.generateLegalMoves(moves);
+    int castles = 0;
+    for (int i = 0; i < count; i++) {
+      if (WideMove.isCastle(moves[i])) {
+        castles++;
+        String before = position.toFen();
+        position.make(moves[i]);
+        position.unmake(moves[i]);
+        Assert.assertEquals(before, position.toFen());
+      }
+    }
+    Assert.assertEquals(2, castles);
+
+    position.make(WideMove.of(WideMove.parseSquare("f1", BoardGeometry.CAPABLANCA),
+        WideMove.parseSquare("i1", BoardGeometry.CAPABLANCA), Move.FLAG_KING_CASTLE));
+    Assert.assertEquals("r4k3r/10/10/10/10/10/10/R6RK1 b kq - 1 1", position.toFen());
+  }
+
+  @Test
+  public void testBoardPosnValidatedAgainstGeometry() {
+    Assert.assertTrue(new BoardPosn(7, 9, BoardGeometry.CAPABLANCA).isOn(BoardGeometry.CAPABLANCA));
+    Assert.assertFalse(new BoardPosn(7, 9).isOn(BoardGeometry.STANDARD));
+    Assert.assertTrue(new BoardPosn(9, 9).isOn(BoardGeometry.TEN_BY_TEN));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBoardPosnOffTheBoard() {
+    new BoardPosn(8, 0, BoardGeometry.CAPABLANCA);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGeometryTooLarge() {
+    new BoardGeometry(12, 12);
+  }
+
+  @Test
+  public void testVariantModel() {
+    VariantChessModel model = new VariantChessModel(BoardGeometry.CAPABLANCA);
+    Assert.assertTrue(model.getPieceAt(new BoardPosn(7, 2)) instanceof Archbishop);
+    Assert.assertTrue(model.getPieceAt(new BoardPosn(0, 7)) instanceof Chancellor);
+
+    // the chancellor leaps like a knight from h1 to i3
+    model.move(model.getPieceAt(new BoardPosn(7, 7)), new BoardPosn(5, 8));
+    Assert.assertTrue(model.getPieceAt(new BoardPosn(5, 8)) instanceof Chancellor);
+    Assert.assertEquals(EChessPlayer.BLACK, model.getCurrentPlayer());
+    Assert.assertEquals(Arrays.asList("h1i3"), model.getMoveList());
+
+    model.undo();
+    Assert.assertTrue(model.getPieceAt(new BoardPosn(7, 7)) instanceof Chancellor);
+    Assert.assertNull(model.getPieceAt(new BoardPosn(5, 8)));
+    Assert.assertEquals(EChessPlayer.WHITE, model.getCurrentPlayer());
+    model.redo();
+    Assert.assertTrue(model.getPieceAt(new BoardPosn(5, 8)) instanceof Chancellor);
+    model.jumpTo(0);
+    Assert.assertEquals(0, model.getPly());
+    Assert.assertTrue(model.getPieceAt(new BoardPosn(7, 7)) instanceof Chancellor);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testVariantModelRejectsOffBoardMove() {
+    VariantChessModel model = new VariantChessModel(BoardGeometry.CAPABLANCA);
+    model.move(model.getPieceAt(new BoardPosn(6, 0)), new BoardPosn(6, 10));
+  }
+}